@@ -40,3 +40,106 @@ CREATE TABLE IF NOT EXISTS patients (
 INSERT INTO users (email, password, role, auth_provider, is_active, created_at, updated_at) 
 VALUES ('admin@haripriya.com', '$2a$10$wPHx.fO2yHk/z.9/4/5.6.7.8.9.0.1.2.3.4.5', 'ADMIN', 'INTERNAL', true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
 ON CONFLICT (email) DO NOTHING;
+
+-- 6. Account state version (bumped on role/state changes, carried in the JWT "ver" claim)
+ALTER TABLE users ADD COLUMN IF NOT EXISTS account_version INTEGER NOT NULL DEFAULT 0;
+
+-- 7. Token revocation (logout) and per-user "tokens issued before X are invalid" epochs
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS tokens_valid_after TIMESTAMP;
+
+-- 8. Indexes for classified patient searches (exact code, email, phone number prefix/suffix)
+-- patient_code is already covered by its UNIQUE constraint
+CREATE INDEX IF NOT EXISTS idx_patients_email_lower ON patients (LOWER(email));
+CREATE INDEX IF NOT EXISTS idx_patients_phone_digits
+    ON patients (regexp_replace(phone_number, '[^0-9]', '', 'g') text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_phone_digits_reversed
+    ON patients (reverse(regexp_replace(phone_number, '[^0-9]', '', 'g')) text_pattern_ops);
+
+-- 9. Sortable patient columns, each with the id tiebreaker so page and cursor queries read the index in order
+-- (id and patient_code are already indexed by their PRIMARY KEY and UNIQUE constraints)
+CREATE INDEX IF NOT EXISTS idx_patients_full_name_id ON patients (full_name, id);
+CREATE INDEX IF NOT EXISTS idx_patients_created_at_id ON patients (created_at, id);
+
+-- 10. Filter columns for /api/patients/filter when the in-memory facet index is not loaded yet:
+-- equality facets first, then the age range on date_of_birth (registration dates use idx_patients_created_at_id)
+CREATE INDEX IF NOT EXISTS idx_patients_active_gender_blood_group ON patients (is_active, gender, blood_group);
+CREATE INDEX IF NOT EXISTS idx_patients_active_date_of_birth ON patients (is_active, date_of_birth);
+
+-- 11. Columns the User entity maps that the original users table was created without
+ALTER TABLE users ADD COLUMN IF NOT EXISTS full_name VARCHAR(100);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS phone VARCHAR(15);
+
+-- 12. Indexes for the remaining repository lookups, kept honest by QueryPlanRegressionTest.
+-- Substring search (LIKE '%term%') on name, phone and code uses trigram GIN indexes
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_patients_full_name_trgm ON patients USING gin (LOWER(full_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_phone_number_trgm ON patients USING gin (LOWER(phone_number) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_patients_patient_code_trgm ON patients USING gin (LOWER(patient_code) gin_trgm_ops);
+-- users.email is covered by its UNIQUE constraint
+CREATE INDEX IF NOT EXISTS idx_users_phone ON users (phone);
+CREATE INDEX IF NOT EXISTS idx_users_role ON users (role);
+-- Only the few deactivated or re-versioned accounts (findAccountStates, findByIsActive(false))
+CREATE INDEX IF NOT EXISTS idx_users_account_state ON users (is_active, account_version)
+    WHERE is_active = false OR account_version > 0;
+CREATE INDEX IF NOT EXISTS idx_users_tokens_valid_after ON users (tokens_valid_after)
+    WHERE tokens_valid_after IS NOT NULL;
+
+-- 13. Per-day patient code counters. Nodes reserve blocks of numbers with
+-- UPDATE ... SET last_value = last_value + block RETURNING last_value (see PatientCodeAllocator)
+CREATE TABLE IF NOT EXISTS patient_code_counters (
+    code_date DATE PRIMARY KEY,
+    last_value BIGINT NOT NULL
+);
+
+-- 14. Phone number and email uniqueness is enforced here; PatientServiceImpl maps violations of
+-- these index names to its "already exists" messages instead of checking before the INSERT
+UPDATE patients SET email = NULL WHERE email = '';
+-- Patients registered before these indexes may share a phone number or email. Rather than fail
+-- on the first duplicate key, stop with the first 20 clashing values and their patient codes;
+-- merge or correct those patients, then run the script again. To list all of them:
+--   SELECT phone_number, array_agg(patient_code ORDER BY id) FROM patients
+--   GROUP BY phone_number HAVING COUNT(*) > 1;
+--   SELECT email, array_agg(patient_code ORDER BY id) FROM patients
+--   WHERE email IS NOT NULL GROUP BY email HAVING COUNT(*) > 1;
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    IF to_regclass('uq_patients_phone_number') IS NULL THEN
+        SELECT string_agg(phone_number || ' (' || codes || ')', ', ') INTO duplicates
+        FROM (SELECT phone_number, string_agg(patient_code, ' ' ORDER BY id) AS codes
+              FROM patients GROUP BY phone_number HAVING COUNT(*) > 1 ORDER BY phone_number LIMIT 20) d;
+        IF duplicates IS NOT NULL THEN
+            RAISE EXCEPTION 'Cannot create uq_patients_phone_number, shared phone numbers: %', duplicates;
+        END IF;
+    END IF;
+    IF to_regclass('uq_patients_email') IS NULL THEN
+        SELECT string_agg(email || ' (' || codes || ')', ', ') INTO duplicates
+        FROM (SELECT email, string_agg(patient_code, ' ' ORDER BY id) AS codes
+              FROM patients WHERE email IS NOT NULL GROUP BY email HAVING COUNT(*) > 1 ORDER BY email LIMIT 20) d;
+        IF duplicates IS NOT NULL THEN
+            RAISE EXCEPTION 'Cannot create uq_patients_email, shared emails: %', duplicates;
+        END IF;
+    END IF;
+END $$;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_patients_phone_number ON patients (phone_number);
+CREATE UNIQUE INDEX IF NOT EXISTS uq_patients_email ON patients (email);
+
+-- 15. Patient ids are allocated in blocks of 50 (Hibernate pooled-lo and the bulk import),
+-- so the INSERTs can be batched. nextval returns the first id of a block.
+ALTER SEQUENCE patients_id_seq INCREMENT BY 50;
+
+-- 16. Optimistic locking: every update bumps version, PATCH only writes while it still matches
+ALTER TABLE patients ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- 17. Bulk deactivate/reactivate by "not updated since" walks stale rows in chunks of
+-- patients.bulk-status.chunk-size; each chunk it changes gets a fresh updated_at and drops out
+CREATE INDEX IF NOT EXISTS idx_patients_updated_at ON patients (updated_at, id);
@@ -0,0 +1,65 @@
+package com.haripriya.haripriya_backend.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit driven by observed latency: the limit grows by roughly one
+ * for every limit-many fast responses and is cut multiplicatively as soon as a
+ * response exceeds the latency threshold.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+
+        lock.lock();
+        try {
+            if (latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+            } else if (inFlightBeforeRelease * 2 >= (int) limit) {
+                // Only probe upwards while the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,34 @@
+package com.haripriya.haripriya_backend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Sends every database call made while serving /auth/** to the auth pool.
+ */
+@Component
+public class AuthPoolRoutingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith("/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        RoutingDataSource.Pool previous = RoutingDataSource.bind(RoutingDataSource.Pool.AUTH);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutingDataSource.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.haripriya.haripriya_backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+/**
+ * Two independently sized Hikari pools against the same database: a small one reserved
+ * for the security path (JWT user lookups, login, revocation refreshes) and one for
+ * clinical traffic. Each pool reports its own hikaricp.* metrics tagged by pool name.
+ * The pools themselves bound concurrent connections, also on virtual threads: callers
+ * beyond maximum-pool-size wait in Hikari and fail after connection-timeout-ms.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${spring.datasource.driver-class-name}")
+    private String driverClassName;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(MeterRegistry meterRegistry,
+            @Value("${datasource.auth.maximum-pool-size:3}") int authPoolSize,
+            @Value("${datasource.auth.connection-timeout-ms:3000}") long authTimeoutMs,
+            @Value("${datasource.clinical.maximum-pool-size:5}") int clinicalPoolSize,
+            @Value("${datasource.clinical.connection-timeout-ms:10000}") long clinicalTimeoutMs) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        HikariDataSource authPool = createPool("auth-pool", authPoolSize, authTimeoutMs, metrics);
+        HikariDataSource clinicalPool = createPool("clinical-pool", clinicalPoolSize, clinicalTimeoutMs, metrics);
+        return new RoutingDataSource(authPool, clinicalPool);
+    }
+
+    // The R2DBC starter also registers a reactive transaction manager; plain @Transactional stays on JPA
+    @Bean
+    @Primary
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+
+    private HikariDataSource createPool(String poolName, int maximumPoolSize, long connectionTimeoutMs,
+            MicrometerMetricsTrackerFactory metrics) {
+        // No-arg constructor: the pool starts on first use, like Boot's default Hikari setup
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(poolName);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setDriverClassName(driverClassName);
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setMinimumIdle(1);
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        pool.setMetricsTrackerFactory(metrics);
+        return pool;
+    }
+}
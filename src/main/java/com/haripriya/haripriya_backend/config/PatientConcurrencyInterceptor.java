@@ -0,0 +1,145 @@
+package com.haripriya.haripriya_backend.config;
+
+import com.haripriya.haripriya_backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load shedding for /api/patients. Each endpoint class has its own adaptive limit, and
+ * all classes share a total cap of which a small slice is kept free for read-by-id,
+ * so a pile of slow searches cannot lock out single-patient lookups.
+ * Excess requests fail fast with 503 instead of queueing inside Tomcat. The import upload
+ * is not limited here, see WebConfig.
+ */
+@Component
+public class PatientConcurrencyInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientConcurrencyInterceptor.class);
+
+    private static final String START_ATTRIBUTE = PatientConcurrencyInterceptor.class.getName() + ".start";
+    private static final String CLASS_ATTRIBUTE = PatientConcurrencyInterceptor.class.getName() + ".class";
+
+    public enum EndpointClass {
+        SEARCH,
+        READ_BY_ID,
+        WRITE
+    }
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+    private final int maxTotal;
+    private final int reservedForReads;
+
+    public PatientConcurrencyInterceptor(MeterRegistry meterRegistry,
+            @Value("${patients.concurrency.max-total:8}") int maxTotal,
+            @Value("${patients.concurrency.reserved-for-reads:2}") int reservedForReads,
+            @Value("${patients.concurrency.search.latency-threshold-ms:1000}") long searchThresholdMs,
+            @Value("${patients.concurrency.read-by-id.latency-threshold-ms:250}") long readThresholdMs,
+            @Value("${patients.concurrency.write.latency-threshold-ms:500}") long writeThresholdMs) {
+        this.maxTotal = maxTotal;
+        this.reservedForReads = Math.min(reservedForReads, maxTotal - 1);
+
+        limiters.put(EndpointClass.SEARCH, new AdaptiveConcurrencyLimiter(
+                maxTotal / 2, 1, maxTotal, TimeUnit.MILLISECONDS.toNanos(searchThresholdMs)));
+        limiters.put(EndpointClass.READ_BY_ID, new AdaptiveConcurrencyLimiter(
+                maxTotal, 1, maxTotal, TimeUnit.MILLISECONDS.toNanos(readThresholdMs)));
+        limiters.put(EndpointClass.WRITE, new AdaptiveConcurrencyLimiter(
+                maxTotal / 2, 1, maxTotal, TimeUnit.MILLISECONDS.toNanos(writeThresholdMs)));
+
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            AdaptiveConcurrencyLimiter limiter = limiters.get(endpointClass);
+            Gauge.builder("patients.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("patients.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejections.put(endpointClass, Counter.builder("patients.concurrency.rejected")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        EndpointClass endpointClass = classify(request);
+
+        if (!acquireTotal(endpointClass)) {
+            reject(endpointClass);
+        }
+        if (!limiters.get(endpointClass).tryAcquire()) {
+            totalInFlight.decrementAndGet();
+            reject(endpointClass);
+        }
+
+        request.setAttribute(CLASS_ATTRIBUTE, endpointClass);
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        EndpointClass endpointClass = (EndpointClass) request.getAttribute(CLASS_ATTRIBUTE);
+        Long start = (Long) request.getAttribute(START_ATTRIBUTE);
+        if (endpointClass == null || start == null) {
+            return;
+        }
+        limiters.get(endpointClass).release(System.nanoTime() - start);
+        totalInFlight.decrementAndGet();
+    }
+
+    private boolean acquireTotal(EndpointClass endpointClass) {
+        // Everything except read-by-id leaves the reserved slots untouched
+        int cap = endpointClass == EndpointClass.READ_BY_ID ? maxTotal : maxTotal - reservedForReads;
+        while (true) {
+            int current = totalInFlight.get();
+            if (current >= cap) {
+                return false;
+            }
+            if (totalInFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void reject(EndpointClass endpointClass) {
+        rejections.get(endpointClass).increment();
+        logger.warn("Shedding {} request on /api/patients, limit {}", endpointClass,
+                limiters.get(endpointClass).getLimit());
+        throw new ServiceUnavailableException("Server is busy, please retry shortly", 1);
+    }
+
+    static EndpointClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        String path = request.getServletPath();
+        String rest = path.length() > "/api/patients/".length() ? path.substring("/api/patients/".length()) : "";
+        if (!"GET".equalsIgnoreCase(method)) {
+            // A batch lookup is a multi-row read, so it is limited with the searches
+            return "POST".equalsIgnoreCase(method) && rest.equals("batch") ? EndpointClass.SEARCH : EndpointClass.WRITE;
+        }
+
+        // Typeahead and import progress are answered from memory, so they share the fast class
+        if (rest.startsWith("code/") || rest.equals("suggest") || rest.startsWith("import/")
+                || (!rest.isEmpty() && rest.chars().allMatch(Character::isDigit))) {
+            return EndpointClass.READ_BY_ID;
+        }
+        return EndpointClass.SEARCH;
+    }
+}
@@ -0,0 +1,89 @@
+package com.haripriya.haripriya_backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Routes each connection request to the auth or the clinical pool, so slow patient
+ * queries can never take the connections that token validation and login need.
+ * The clinical pool is the default; auth paths opt in with {@link #callOn}.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public enum Pool {
+        AUTH,
+        CLINICAL
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingDataSource.class);
+
+    private static final ThreadLocal<Pool> CURRENT_POOL = new ThreadLocal<>();
+
+    private final DataSource authPool;
+    private final DataSource clinicalPool;
+
+    public RoutingDataSource(DataSource authPool, DataSource clinicalPool) {
+        this.authPool = authPool;
+        this.clinicalPool = clinicalPool;
+        setTargetDataSources(Map.of(Pool.AUTH, authPool, Pool.CLINICAL, clinicalPool));
+        setDefaultTargetDataSource(clinicalPool);
+        afterPropertiesSet();
+    }
+
+    public static <T> T callOn(Pool pool, Supplier<T> action) {
+        Pool previous = bind(pool);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void runOn(Pool pool, Runnable action) {
+        callOn(pool, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    static Pool bind(Pool pool) {
+        Pool previous = CURRENT_POOL.get();
+        CURRENT_POOL.set(pool);
+        return previous;
+    }
+
+    static void restore(Pool previous) {
+        if (previous == null) {
+            CURRENT_POOL.remove();
+        } else {
+            CURRENT_POOL.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Pool pool = CURRENT_POOL.get();
+        return pool != null ? pool : Pool.CLINICAL;
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(authPool);
+        closeQuietly(clinicalPool);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                logger.warn("Could not close data source", ex);
+            }
+        }
+    }
+}
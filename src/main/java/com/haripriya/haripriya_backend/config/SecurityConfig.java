@@ -3,6 +3,7 @@ package com.haripriya.haripriya_backend.config;
 import com.haripriya.haripriya_backend.security.CustomUserDetailsService;
 import com.haripriya.haripriya_backend.security.JwtAuthenticationEntryPoint;
 import com.haripriya.haripriya_backend.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -63,7 +64,12 @@ public class SecurityConfig {
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Mono/Flux responses complete on an async dispatch; the original request was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Metrics show cache, throttle, pool and JVM internals; only health and info are public
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                         .requestMatchers("/", "/health", "/healthz", "/ready", "/actuator/**").permitAll()
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/doctor/**").hasAnyRole("ADMIN", "DOCTOR")
@@ -1,12 +1,17 @@
 package com.haripriya.haripriya_backend.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
+    private final PatientConcurrencyInterceptor patientConcurrencyInterceptor;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -18,4 +23,13 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // An import upload is bounded by its own job queue, and its transfer time says nothing about
+        // how fast writes are, so it must not feed the WRITE limit
+        registry.addInterceptor(patientConcurrencyInterceptor)
+                .addPathPatterns("/api/patients", "/api/patients/**")
+                .excludePathPatterns("/api/patients/import");
+    }
 }
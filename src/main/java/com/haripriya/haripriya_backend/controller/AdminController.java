@@ -1,9 +1,16 @@
 package com.haripriya.haripriya_backend.controller;
 
 import com.haripriya.haripriya_backend.dto.ApiResponse;
+import com.haripriya.haripriya_backend.dto.UserAccountUpdateRequest;
+import com.haripriya.haripriya_backend.dto.UserResponse;
+import com.haripriya.haripriya_backend.service.AuthService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -13,8 +20,11 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/admin")
 @PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
 public class AdminController {
 
+    private final AuthService authService;
+
     @GetMapping("/dashboard")
     public ResponseEntity<ApiResponse<Map<String, String>>> getAdminDashboard() {
         Map<String, String> data = new HashMap<>();
@@ -24,4 +34,17 @@ public class AdminController {
         return ResponseEntity.ok(
                 ApiResponse.success("Admin dashboard data retrieved", data));
     }
+
+    /**
+     * Changes a user's role and/or active status. Any change bumps the account version,
+     * which ends every session the user had.
+     */
+    @PatchMapping("/users/{id}")
+    public ResponseEntity<ApiResponse<UserResponse>> updateUserAccount(
+            @PathVariable Long id,
+            @RequestBody UserAccountUpdateRequest updateRequest) {
+        UserResponse user = authService.updateAccountState(id, updateRequest);
+        return ResponseEntity.ok(
+                ApiResponse.success("User account updated successfully", user));
+    }
 }
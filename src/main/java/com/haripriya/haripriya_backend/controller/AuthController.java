@@ -1,8 +1,11 @@
 package com.haripriya.haripriya_backend.controller;
 
 import com.haripriya.haripriya_backend.dto.*;
+import com.haripriya.haripriya_backend.security.JwtAuthenticationFilter;
+import com.haripriya.haripriya_backend.security.LoginRateLimiter;
 import com.haripriya.haripriya_backend.security.UserPrincipal;
 import com.haripriya.haripriya_backend.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -17,6 +20,7 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @GetMapping("/debug/hash/{password}")
     public ResponseEntity<String> debugHash(@PathVariable String password) {
@@ -26,13 +30,25 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest loginRequest) {
-        System.out.println("Login attempt for: " + loginRequest.getEmail());
+    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
+        // Throttled attempts are rejected here, before any DB lookup or BCrypt work. Behind the proxy
+        // getRemoteAddr() is the client address from X-Forwarded-For (server.forward-headers-strategy)
+        loginRateLimiter.checkLoginAttempt(loginRequest.getEmail(), request.getRemoteAddr());
         AuthResponse authResponse = authService.login(loginRequest);
         return ResponseEntity.ok(
                 ApiResponse.success("Login successful", authResponse));
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestParam(defaultValue = "false") boolean allSessions,
+            HttpServletRequest request) {
+        authService.logout(JwtAuthenticationFilter.getJwtFromRequest(request), allSessions);
+        return ResponseEntity.ok(
+                ApiResponse.success("Logged out successfully", null));
+    }
+
     @PostMapping("/register")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<UserResponse>> register(@Valid @RequestBody RegisterRequest registerRequest) {
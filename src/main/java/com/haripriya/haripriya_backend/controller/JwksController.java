@@ -0,0 +1,25 @@
+package com.haripriya.haripriya_backend.controller;
+
+import com.haripriya.haripriya_backend.security.JwtTokenProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtTokenProvider tokenProvider;
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(tokenProvider.getPublicJwks());
+    }
+}
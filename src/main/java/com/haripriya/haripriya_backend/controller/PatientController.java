@@ -1,27 +1,59 @@
 package com.haripriya.haripriya_backend.controller;
 
 import com.haripriya.haripriya_backend.dto.ApiResponse;
+import com.haripriya.haripriya_backend.dto.CursorPage;
+import com.haripriya.haripriya_backend.dto.PageResult;
+import com.haripriya.haripriya_backend.dto.PatientBatchItemDTO;
+import com.haripriya.haripriya_backend.dto.PatientBatchRequest;
+import com.haripriya.haripriya_backend.dto.PatientBulkStatusRequest;
+import com.haripriya.haripriya_backend.dto.PatientBulkStatusResultDTO;
+import com.haripriya.haripriya_backend.dto.PatientFilter;
+import com.haripriya.haripriya_backend.dto.PatientFilterResultDTO;
+import com.haripriya.haripriya_backend.dto.PatientImportJobDTO;
 import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
 import com.haripriya.haripriya_backend.dto.PatientResponseDTO;
+import com.haripriya.haripriya_backend.dto.PatientSuggestionDTO;
+import com.haripriya.haripriya_backend.dto.PatientSummaryDTO;
 import com.haripriya.haripriya_backend.dto.PatientUpdateDTO;
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.CountMode;
+import com.haripriya.haripriya_backend.enums.Gender;
+import com.haripriya.haripriya_backend.enums.PatientField;
+import com.haripriya.haripriya_backend.enums.PatientSortField;
+import com.haripriya.haripriya_backend.exception.ValidationException;
+import com.haripriya.haripriya_backend.service.PatientImportService;
 import com.haripriya.haripriya_backend.service.PatientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/patients")
 @RequiredArgsConstructor
 public class PatientController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_BATCH_ITEMS = 500;
+
     private final PatientService patientService;
+    private final PatientImportService patientImportService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
@@ -34,21 +66,22 @@ public class PatientController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
-    public ResponseEntity<ApiResponse<Page<PatientResponseDTO>>> getAllPatients(
+    public ResponseEntity<ApiResponse<PageResult<PatientSummaryDTO>>> getAllPatients(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection,
-            @RequestParam(required = false) Boolean isActive) {
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(defaultValue = "exact") String count) {
 
-        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Pageable pageable = pageRequest(page, size, sortBy, sortDirection);
+        CountMode countMode = CountMode.fromParam(count);
 
-        Page<PatientResponseDTO> patients;
+        PageResult<PatientSummaryDTO> patients;
         if (isActive != null) {
-            patients = patientService.getActivePatients(isActive, pageable);
+            patients = patientService.getActivePatients(isActive, pageable, countMode);
         } else {
-            patients = patientService.getAllPatients(pageable);
+            patients = patientService.getAllPatients(pageable, countMode);
         }
 
         return ResponseEntity.ok(
@@ -59,8 +92,9 @@ public class PatientController {
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
     public ResponseEntity<ApiResponse<PatientResponseDTO>> getPatientById(@PathVariable Long id) {
         PatientResponseDTO response = patientService.getPatientById(id);
-        return ResponseEntity.ok(
-                ApiResponse.success("Patient retrieved successfully", response));
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(response.getVersion()))
+                .body(ApiResponse.success("Patient retrieved successfully", response));
     }
 
     @GetMapping("/code/{patientCode}")
@@ -71,6 +105,68 @@ public class PatientController {
                 ApiResponse.success("Patient retrieved successfully", response));
     }
 
+    /**
+     * Sparse variants of the GET endpoints: with fields=fullName,phoneNumber only those
+     * columns are selected and only those keys are returned.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPatientFieldsById(
+            @PathVariable Long id,
+            @RequestParam String fields) {
+        Map<String, Object> response = patientService.getPatientFieldsById(id, PatientField.parse(fields));
+        return ResponseEntity.ok(
+                ApiResponse.success("Patient retrieved successfully", response));
+    }
+
+    @GetMapping(value = "/code/{patientCode}", params = "fields")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPatientFieldsByCode(
+            @PathVariable String patientCode,
+            @RequestParam String fields) {
+        Map<String, Object> response = patientService.getPatientFieldsByCode(patientCode,
+                PatientField.parse(fields));
+        return ResponseEntity.ok(
+                ApiResponse.success("Patient retrieved successfully", response));
+    }
+
+    @GetMapping(params = "fields")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<PageResult<Map<String, Object>>>> getAllPatientFields(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(defaultValue = "exact") String count) {
+
+        PageResult<Map<String, Object>> patients = patientService.listPatientFields(PatientField.parse(fields),
+                isActive, pageRequest(page, size, sortBy, sortDirection), CountMode.fromParam(count));
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Patients retrieved successfully", patients));
+    }
+
+    @GetMapping(value = "/search", params = "fields")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<PageResult<Map<String, Object>>>> searchPatientFields(
+            @RequestParam String query,
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(defaultValue = "exact") String count) {
+
+        PageResult<Map<String, Object>> patients = patientService.searchPatientFields(PatientField.parse(fields),
+                query, isActive, pageRequest(page, size, sortBy, sortDirection), CountMode.fromParam(count));
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Search results retrieved successfully", patients));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
     public ResponseEntity<ApiResponse<PatientResponseDTO>> updatePatient(
@@ -81,6 +177,22 @@ public class PatientController {
                 ApiResponse.success("Patient updated successfully", response));
     }
 
+    /**
+     * JSON Merge Patch: only the fields present are changed, null clears an optional one.
+     * If-Match must carry the ETag from GET /{id}; a stale one gets 409.
+     */
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    @PreAuthorize("hasAnyRole('ADMIN', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<PatientResponseDTO>> patchPatient(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> mergePatch) {
+        PatientResponseDTO response = patientService.patchPatient(id, expectedVersion(ifMatch), mergePatch);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(response.getVersion()))
+                .body(ApiResponse.success("Patient updated successfully", response));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ApiResponse<Void>> deactivatePatient(@PathVariable Long id) {
@@ -89,27 +201,217 @@ public class PatientController {
                 ApiResponse.success("Patient deactivated successfully", null));
     }
 
+    /**
+     * Deactivates the listed ids, or every patient not updated since notUpdatedSince.
+     * Rows are changed in chunks that each commit on their own; the counts say how many
+     * patients actually changed.
+     */
+    @PostMapping("/bulk/deactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PatientBulkStatusResultDTO>> deactivatePatients(
+            @Valid @RequestBody PatientBulkStatusRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Patients deactivated successfully",
+                patientService.setActiveInBulk(checkBulkStatusRequest(request), false)));
+    }
+
+    @PostMapping("/bulk/reactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PatientBulkStatusResultDTO>> reactivatePatients(
+            @Valid @RequestBody PatientBulkStatusRequest request) {
+        return ResponseEntity.ok(ApiResponse.success("Patients reactivated successfully",
+                patientService.setActiveInBulk(checkBulkStatusRequest(request), true)));
+    }
+
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
-    public ResponseEntity<ApiResponse<Page<PatientResponseDTO>>> searchPatients(
+    public ResponseEntity<ApiResponse<PageResult<PatientSummaryDTO>>> searchPatients(
             @RequestParam String query,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection,
-            @RequestParam(required = false) Boolean isActive) {
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(defaultValue = "exact") String count) {
 
-        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Pageable pageable = pageRequest(page, size, sortBy, sortDirection);
+        CountMode countMode = CountMode.fromParam(count);
 
-        Page<PatientResponseDTO> patients;
+        PageResult<PatientSummaryDTO> patients;
         if (isActive != null) {
-            patients = patientService.searchPatients(query, isActive, pageable);
+            patients = patientService.searchPatients(query, isActive, pageable, countMode);
         } else {
-            patients = patientService.searchPatients(query, pageable);
+            patients = patientService.searchPatients(query, pageable, countMode);
         }
 
         return ResponseEntity.ok(
                 ApiResponse.success("Search results retrieved successfully", patients));
     }
+
+    /**
+     * Filters by gender, blood group, active flag, age and registration date, with the
+     * count of patients per facet value next to the page of results.
+     */
+    @GetMapping("/filter")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<PatientFilterResultDTO>> filterPatients(
+            @RequestParam(required = false) Set<Gender> gender,
+            @RequestParam(required = false) Set<BloodGroup> bloodGroup,
+            @RequestParam(required = false) Boolean isActive,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredTo,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection) {
+
+        if ((minAge != null && minAge < 0) || (maxAge != null && maxAge < 0)
+                || (minAge != null && maxAge != null && minAge > maxAge)) {
+            throw new ValidationException("minAge and maxAge must be non-negative and minAge must not exceed maxAge");
+        }
+        if (registeredFrom != null && registeredTo != null && registeredFrom.isAfter(registeredTo)) {
+            throw new ValidationException("registeredFrom must not be after registeredTo");
+        }
+
+        PatientFilter filter = PatientFilter.builder()
+                .genders(gender)
+                .bloodGroups(bloodGroup)
+                .isActive(isActive)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .registeredFrom(registeredFrom)
+                .registeredTo(registeredTo)
+                .build();
+        PatientFilterResultDTO result = patientService.filterPatients(filter,
+                pageRequest(page, size, sortBy, sortDirection));
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Patients retrieved successfully", result));
+    }
+
+    /**
+     * Resolves many ids and codes in one request. Results keep the request order, ids
+     * first, each marked found or not; fields= narrows the returned columns as on GET.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<List<PatientBatchItemDTO>>> getPatientsBatch(
+            @Valid @RequestBody PatientBatchRequest request,
+            @RequestParam(required = false) String fields) {
+        List<Long> ids = request.getIds() != null ? request.getIds() : List.of();
+        List<String> patientCodes = request.getPatientCodes() != null ? request.getPatientCodes() : List.of();
+        if (ids.isEmpty() && patientCodes.isEmpty()) {
+            throw new ValidationException("Provide at least one id or patient code");
+        }
+        if (ids.size() + patientCodes.size() > MAX_BATCH_ITEMS) {
+            throw new ValidationException("A batch may contain at most " + MAX_BATCH_ITEMS + " ids and codes");
+        }
+
+        Set<PatientField> selected = fields != null ? PatientField.parse(fields) : EnumSet.allOf(PatientField.class);
+        List<PatientBatchItemDTO> results = patientService.getPatientsBatch(ids, patientCodes, selected);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Patients retrieved successfully", results));
+    }
+
+    /**
+     * Starts a bulk import of a CSV (header row of field names) or NDJSON (one
+     * POST /api/patients body per line) upload. Returns 202 with the job; poll the
+     * Location for progress and per-row errors.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PatientImportJobDTO>> importPatients(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        PatientImportJobDTO job = patientImportService.startImport(body, contentType);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/patients/import/" + job.getJobId()))
+                .body(ApiResponse.success("Patient import started", job));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PatientImportJobDTO>> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(
+                ApiResponse.success("Import job retrieved successfully", patientImportService.getImportJob(jobId)));
+    }
+
+    @GetMapping("/suggest")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<List<PatientSuggestionDTO>>> suggestPatients(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Boolean isActive) {
+
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        List<PatientSuggestionDTO> suggestions = patientService.suggestPatients(query, isActive, boundedLimit);
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Suggestions retrieved successfully", suggestions));
+    }
+
+    /**
+     * Cursor pagination over the same listing and search. Pass nextCursor from the
+     * previous response to continue; latency does not grow with how far the client has read.
+     */
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public ResponseEntity<ApiResponse<CursorPage<PatientSummaryDTO>>> scrollPatients(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(required = false) Boolean isActive) {
+
+        CursorPage<PatientSummaryDTO> patients = patientService.scrollPatients(query, isActive,
+                PatientSortField.fromProperty(sortBy), direction(sortDirection), cursor, boundedSize(size));
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Patients retrieved successfully", patients));
+    }
+
+    private static Pageable pageRequest(int page, int size, String sortBy, String sortDirection) {
+        if (page < 0) {
+            throw new ValidationException("Page index must not be negative");
+        }
+        PatientSortField sortField = PatientSortField.fromProperty(sortBy);
+        return PageRequest.of(page, boundedSize(size), sortField.toSort(direction(sortDirection)));
+    }
+
+    private static long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new ValidationException("If-Match header with the patient's ETag is required");
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        try {
+            return Long.parseLong(tag.replace("\"", ""));
+        } catch (NumberFormatException ex) {
+            throw new ValidationException("If-Match must be the ETag returned for the patient, e.g. \"3\"");
+        }
+    }
+
+    private static PatientBulkStatusRequest checkBulkStatusRequest(PatientBulkStatusRequest request) {
+        boolean hasIds = request.getIds() != null;
+        if (hasIds == (request.getNotUpdatedSince() != null)) {
+            throw new ValidationException("Provide either ids or notUpdatedSince");
+        }
+        if (hasIds && request.getIds().isEmpty()) {
+            throw new ValidationException("Provide at least one id");
+        }
+        return request;
+    }
+
+    private static Sort.Direction direction(String sortDirection) {
+        return sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
+    }
+
+    private static int boundedSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
 }
@@ -0,0 +1,62 @@
+package com.haripriya.haripriya_backend.controller;
+
+import com.haripriya.haripriya_backend.dto.ApiResponse;
+import com.haripriya.haripriya_backend.dto.PatientResponseDTO;
+import com.haripriya.haripriya_backend.dto.PatientSummaryDTO;
+import com.haripriya.haripriya_backend.exception.ValidationException;
+import com.haripriya.haripriya_backend.service.ReactivePatientService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads for patients, served from R2DBC. Responses are written when the
+ * publisher completes, so no request thread waits on the database. Search results are
+ * streamed as NDJSON, one patient per line, with demand driven by the client connection.
+ */
+@RestController
+@RequestMapping("/api/reactive/patients")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "patients.reactive-reads.enabled", havingValue = "true")
+public class ReactivePatientController {
+
+    // Same bounds as the page size of the MVC listing endpoints
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ReactivePatientService reactivePatientService;
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public Mono<ResponseEntity<ApiResponse<PatientResponseDTO>>> getPatientById(@PathVariable Long id) {
+        return reactivePatientService.getPatientById(id)
+                .map(response -> ResponseEntity.ok(
+                        ApiResponse.success("Patient retrieved successfully", response)));
+    }
+
+    @GetMapping("/code/{patientCode}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public Mono<ResponseEntity<ApiResponse<PatientResponseDTO>>> getPatientByCode(@PathVariable String patientCode) {
+        return reactivePatientService.getPatientByCode(patientCode)
+                .map(response -> ResponseEntity.ok(
+                        ApiResponse.success("Patient retrieved successfully", response)));
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'DOCTOR', 'RECEPTIONIST')")
+    public Flux<PatientSummaryDTO> searchPatients(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Boolean isActive) {
+        if (page < 0) {
+            throw new ValidationException("Page index must not be negative");
+        }
+        int boundedSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return reactivePatientService.searchPatients(query, isActive, page, boundedSize);
+    }
+}
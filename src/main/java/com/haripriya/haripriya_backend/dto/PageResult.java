@@ -0,0 +1,78 @@
+package com.haripriya.haripriya_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * A page of results whose total may be exact, estimated or absent. Keeps the field
+ * names of a serialized Spring Data Page so existing clients read it unchanged.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageResult<T> {
+
+    private List<T> content;
+    private int number;
+    private int size;
+    private int numberOfElements;
+    private boolean first;
+    private boolean last;
+    private boolean empty;
+    private boolean hasNext;
+    // Null when the total was not computed (count=none)
+    private Long totalElements;
+    private Integer totalPages;
+    private boolean totalExact;
+
+    public static <T> PageResult<T> exact(Page<T> page) {
+        return PageResult.<T>builder()
+                .content(page.getContent())
+                .number(page.getNumber())
+                .size(page.getSize())
+                .numberOfElements(page.getNumberOfElements())
+                .first(page.isFirst())
+                .last(page.isLast())
+                .empty(page.isEmpty())
+                .hasNext(page.hasNext())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .totalExact(true)
+                .build();
+    }
+
+    /**
+     * A slice with an optional estimated total; a null total leaves totals unset.
+     */
+    public static <T> PageResult<T> estimated(Slice<T> slice, Long estimatedTotal) {
+        Long total = estimatedTotal;
+        if (total != null) {
+            // Never report fewer rows than this request has already seen
+            long seen = slice.getPageable().isPaged()
+                    ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+                    : slice.getNumberOfElements();
+            total = Math.max(total, seen + (slice.hasNext() ? 1 : 0));
+        }
+        return PageResult.<T>builder()
+                .content(slice.getContent())
+                .number(slice.getNumber())
+                .size(slice.getSize())
+                .numberOfElements(slice.getNumberOfElements())
+                .first(slice.isFirst())
+                .last(slice.isLast())
+                .empty(slice.isEmpty())
+                .hasNext(slice.hasNext())
+                .totalElements(total)
+                .totalPages(total == null || slice.getSize() == 0 ? null
+                        : (int) Math.ceil((double) total / slice.getSize()))
+                .totalExact(false)
+                .build();
+    }
+}
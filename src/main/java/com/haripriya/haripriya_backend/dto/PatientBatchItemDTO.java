@@ -0,0 +1,24 @@
+package com.haripriya.haripriya_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * One requested id or code and what it resolved to. Exactly one of id and patientCode
+ * echoes the request; patient is null when found is false.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientBatchItemDTO {
+
+    private Long id;
+    private String patientCode;
+    private boolean found;
+    private Map<String, Object> patient;
+}
@@ -0,0 +1,22 @@
+package com.haripriya.haripriya_backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientBatchRequest {
+
+    @Size(max = 500, message = "A batch may contain at most 500 ids")
+    private List<@NotNull Long> ids;
+
+    @Size(max = 500, message = "A batch may contain at most 500 patient codes")
+    private List<@NotBlank String> patientCodes;
+}
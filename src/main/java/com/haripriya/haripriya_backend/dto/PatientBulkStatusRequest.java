@@ -0,0 +1,27 @@
+package com.haripriya.haripriya_backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Which patients a bulk deactivate or reactivate applies to: either explicit ids, or every
+ * patient not updated since the given date (updatedAt before the start of that day).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientBulkStatusRequest {
+
+    @Size(max = 10000, message = "A bulk status change may list at most 10000 ids")
+    private List<@NotNull Long> ids;
+
+    @PastOrPresent(message = "notUpdatedSince must not be in the future")
+    private LocalDate notUpdatedSince;
+}
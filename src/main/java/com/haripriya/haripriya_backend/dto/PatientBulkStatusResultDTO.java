@@ -0,0 +1,22 @@
+package com.haripriya.haripriya_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk status change. updated counts rows whose status actually changed;
+ * for an id list, unchanged counts ids that were unknown or already in the target state.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientBulkStatusResultDTO {
+
+    private Boolean isActive;
+    private long updated;
+    private Long unchanged;
+    private int statements;
+}
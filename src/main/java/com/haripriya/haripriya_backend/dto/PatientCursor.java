@@ -0,0 +1,63 @@
+package com.haripriya.haripriya_backend.dto;
+
+import com.haripriya.haripriya_backend.enums.PatientSortField;
+import com.haripriya.haripriya_backend.exception.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+
+/**
+ * Position of the last patient returned by a cursor page: the sort column and direction
+ * plus that patient's (sortKey, id). Handed to clients as an opaque URL-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public class PatientCursor {
+
+    private static final int VERSION = 1;
+
+    private final PatientSortField sortField;
+    private final Sort.Direction direction;
+    private final String sortKey;
+    private final long id;
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(sortField.name());
+            out.writeUTF(direction.name());
+            out.writeUTF(sortKey);
+            out.writeLong(id);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static PatientCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new ValidationException("Unsupported cursor, restart from the first page");
+            }
+            PatientSortField sortField = PatientSortField.valueOf(in.readUTF());
+            Sort.Direction direction = Sort.Direction.valueOf(in.readUTF());
+            String sortKey = in.readUTF();
+            long id = in.readLong();
+            sortField.parseKey(sortKey);
+            return new PatientCursor(sortField, direction, sortKey, id);
+        } catch (ValidationException ex) {
+            throw ex;
+        } catch (IOException | RuntimeException ex) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
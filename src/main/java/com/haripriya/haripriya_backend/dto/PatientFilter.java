@@ -0,0 +1,44 @@
+package com.haripriya.haripriya_backend.dto;
+
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Criteria for /api/patients/filter. Empty sets and null bounds do not filter; several
+ * values of one facet match any of them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class PatientFilter {
+
+    private Set<Gender> genders;
+    private Set<BloodGroup> bloodGroups;
+    private Boolean isActive;
+    private Integer minAge;
+    private Integer maxAge;
+    private LocalDate registeredFrom;
+    private LocalDate registeredTo;
+
+    /**
+     * Latest date of birth for patients at least minAge years old today, or null.
+     */
+    public LocalDate latestDateOfBirth(LocalDate today) {
+        return minAge == null ? null : today.minusYears(minAge);
+    }
+
+    /**
+     * Earliest date of birth for patients at most maxAge years old today, or null.
+     */
+    public LocalDate earliestDateOfBirth(LocalDate today) {
+        return maxAge == null ? null : today.minusYears(maxAge + 1L).plusDays(1);
+    }
+}
@@ -0,0 +1,23 @@
+package com.haripriya.haripriya_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A page of filtered patients plus, per facet, how many patients each value would match
+ * with the other facets' filters applied.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientFilterResultDTO {
+
+    private PageResult<PatientSummaryDTO> patients;
+    // facet name -> value -> count, e.g. "gender" -> {"MALE": 120, "FEMALE": 131, "OTHER": 4}
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,17 @@
+package com.haripriya.haripriya_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A rejected import row: its number in the file (from 1, after any CSV header) and why.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientImportErrorDTO {
+
+    private long row;
+    private String message;
+}
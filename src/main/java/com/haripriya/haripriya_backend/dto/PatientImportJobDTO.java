@@ -0,0 +1,34 @@
+package com.haripriya.haripriya_backend.dto;
+
+import com.haripriya.haripriya_backend.enums.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress of a bulk import. rowsRead = imported + rejected once every read row has been
+ * written; errors lists rejected rows up to a limit (errorsTruncated when more were rejected).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientImportJobDTO {
+
+    private String jobId;
+    private String format;
+    private ImportStatus status;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private double rowsPerSecond;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String failureMessage;
+    private List<PatientImportErrorDTO> errors;
+    private boolean errorsTruncated;
+}
@@ -1,5 +1,6 @@
 package com.haripriya.haripriya_backend.dto;
 
+import com.haripriya.haripriya_backend.entity.Patient;
 import com.haripriya.haripriya_backend.enums.BloodGroup;
 import com.haripriya.haripriya_backend.enums.Gender;
 import lombok.AllArgsConstructor;
@@ -31,6 +32,32 @@ public class PatientResponseDTO {
     private String emergencyContactName;
     private String emergencyContactPhone;
     private Boolean isActive;
+    // Also sent as the ETag; PATCH expects it back in If-Match
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    // Shared by the JPA and the reactive read paths so both return identical payloads
+    public static PatientResponseDTO from(Patient patient) {
+        return PatientResponseDTO.builder()
+                .id(patient.getId())
+                .patientCode(patient.getPatientCode())
+                .fullName(patient.getFullName())
+                .gender(patient.getGender())
+                .dateOfBirth(patient.getDateOfBirth())
+                .age(patient.getAge())
+                .phoneNumber(patient.getPhoneNumber())
+                .email(patient.getEmail())
+                .address(patient.getAddress())
+                .bloodGroup(patient.getBloodGroup())
+                .chronicDiseases(patient.getChronicDiseases())
+                .allergies(patient.getAllergies())
+                .emergencyContactName(patient.getEmergencyContactName())
+                .emergencyContactPhone(patient.getEmergencyContactPhone())
+                .isActive(patient.getIsActive())
+                .version(patient.getVersion())
+                .createdAt(patient.getCreatedAt())
+                .updatedAt(patient.getUpdatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,18 @@
+package com.haripriya.haripriya_backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientSuggestionDTO {
+
+    private Long id;
+    private String patientCode;
+    private String fullName;
+    private Integer age;
+}
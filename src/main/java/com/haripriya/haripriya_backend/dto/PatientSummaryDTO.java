@@ -0,0 +1,44 @@
+package com.haripriya.haripriya_backend.dto;
+
+import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.enums.Gender;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * The columns list and search views show. Repository queries build it with a JPQL
+ * constructor expression, so address and the medical history text are never read.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PatientSummaryDTO {
+
+    private Long id;
+    private String patientCode;
+    private String fullName;
+    private Gender gender;
+    private LocalDate dateOfBirth;
+    private Integer age;
+    private String phoneNumber;
+    private Boolean isActive;
+
+    // Used by the constructor expressions in PatientRepository
+    public PatientSummaryDTO(Long id, String patientCode, String fullName, Gender gender, LocalDate dateOfBirth,
+            String phoneNumber, Boolean isActive) {
+        this(id, patientCode, fullName, gender, dateOfBirth,
+                dateOfBirth == null ? null : Period.between(dateOfBirth, LocalDate.now()).getYears(),
+                phoneNumber, isActive);
+    }
+
+    public static PatientSummaryDTO from(Patient patient) {
+        return new PatientSummaryDTO(patient.getId(), patient.getPatientCode(), patient.getFullName(),
+                patient.getGender(), patient.getDateOfBirth(), patient.getPhoneNumber(), patient.getIsActive());
+    }
+}
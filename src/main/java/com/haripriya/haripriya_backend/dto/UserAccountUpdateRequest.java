@@ -0,0 +1,19 @@
+package com.haripriya.haripriya_backend.dto;
+
+import com.haripriya.haripriya_backend.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Role and/or active status to set on a user; absent fields are left as they are.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserAccountUpdateRequest {
+
+    private Role role;
+
+    private Boolean isActive;
+}
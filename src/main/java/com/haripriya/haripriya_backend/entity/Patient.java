@@ -6,8 +6,11 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -16,14 +19,19 @@ import java.time.Period;
 
 @Entity
 @Table(name = "patients", schema = "testbackendproject")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Patient {
 
+    // Ids come from patients_id_seq in blocks of 50 (pooled-lo), so inserts can be batched;
+    // PatientBulkInsertRepository takes its blocks from the same sequence
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patients_id_seq")
+    @SequenceGenerator(name = "patients_id_seq", sequenceName = "patients_id_seq", schema = "testbackendproject",
+            allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 20)
@@ -45,17 +53,28 @@ public class Patient {
     @Column(length = 100)
     private String email;
 
+    // Address and medical history are only shown on the detail view. With bytecode enhancement
+    // they are left out of entity loads and fetched together on first access.
+    @Basic(fetch = FetchType.LAZY)
     @Column(length = 500)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String address;
 
     @Enumerated(EnumType.STRING)
     @Column(length = 15)
     private BloodGroup bloodGroup;
 
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String chronicDiseases;
 
+    @Basic(fetch = FetchType.LAZY)
     @Column(columnDefinition = "TEXT")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private String allergies;
 
     @Column(length = 100)
@@ -68,6 +87,10 @@ public class Patient {
     @Builder.Default
     private Boolean isActive = true;
 
+    // Bumped by every update; PATCH /api/patients/{id} only writes when the client's version still matches
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
@@ -0,0 +1,26 @@
+package com.haripriya.haripriya_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Last patient code number handed out for a registration day. Nodes reserve blocks by
+ * bumping lastValue, see PatientCodeAllocator.
+ */
+@Entity
+@Table(name = "patient_code_counters", schema = "testbackendproject")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientCodeCounter {
+
+    @Id
+    private LocalDate codeDate;
+
+    @Column(nullable = false)
+    private Long lastValue;
+}
@@ -0,0 +1,78 @@
+package com.haripriya.haripriya_backend.entity;
+
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.Gender;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only R2DBC view of the patients table used by the reactive read path.
+ * Writes always go through the JPA {@link Patient} entity.
+ */
+@Table(name = "patients", schema = "testbackendproject")
+@Data
+@NoArgsConstructor
+public class PatientRecord {
+
+    @Id
+    private Long id;
+
+    private String patientCode;
+
+    private String fullName;
+
+    private Gender gender;
+
+    private LocalDate dateOfBirth;
+
+    private String phoneNumber;
+
+    private String email;
+
+    private String address;
+
+    private BloodGroup bloodGroup;
+
+    private String chronicDiseases;
+
+    private String allergies;
+
+    private String emergencyContactName;
+
+    private String emergencyContactPhone;
+
+    private Boolean isActive;
+
+    private Long version;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    public Patient toPatient() {
+        return Patient.builder()
+                .id(id)
+                .patientCode(patientCode)
+                .fullName(fullName)
+                .gender(gender)
+                .dateOfBirth(dateOfBirth)
+                .phoneNumber(phoneNumber)
+                .email(email)
+                .address(address)
+                .bloodGroup(bloodGroup)
+                .chronicDiseases(chronicDiseases)
+                .allergies(allergies)
+                .emergencyContactName(emergencyContactName)
+                .emergencyContactPhone(emergencyContactPhone)
+                .isActive(isActive)
+                .version(version)
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -49,6 +49,14 @@ public class User {
     @Builder.Default
     private Boolean isActive = true;
 
+    // Bumped whenever role or account state changes so tokens issued before the change stop working
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer accountVersion = 0;
+
+    // Tokens issued before this instant are rejected ("log out everywhere")
+    private LocalDateTime tokensValidAfter;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false, columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
     private LocalDateTime createdAt;
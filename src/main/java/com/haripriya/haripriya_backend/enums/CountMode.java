@@ -0,0 +1,23 @@
+package com.haripriya.haripriya_backend.enums;
+
+import com.haripriya.haripriya_backend.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * How a paged endpoint works out its total: an exact COUNT(*), a maintained estimate,
+ * or no total at all (slice mode, only hasNext).
+ */
+public enum CountMode {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    public static CountMode fromParam(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException("count must be one of: exact, estimate, none");
+        }
+    }
+}
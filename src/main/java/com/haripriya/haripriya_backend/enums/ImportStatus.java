@@ -0,0 +1,8 @@
+package com.haripriya.haripriya_backend.enums;
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,74 @@
+package com.haripriya.haripriya_backend.enums;
+
+import com.haripriya.haripriya_backend.exception.ValidationException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields a client may request with fields=. Each maps to the entity attribute it is read
+ * from; age is derived from dateOfBirth, so asking for it selects that column.
+ */
+public enum PatientField {
+
+    ID("id", "id"),
+    PATIENT_CODE("patientCode", "patientCode"),
+    FULL_NAME("fullName", "fullName"),
+    GENDER("gender", "gender"),
+    DATE_OF_BIRTH("dateOfBirth", "dateOfBirth"),
+    AGE("age", "dateOfBirth"),
+    PHONE_NUMBER("phoneNumber", "phoneNumber"),
+    EMAIL("email", "email"),
+    ADDRESS("address", "address"),
+    BLOOD_GROUP("bloodGroup", "bloodGroup"),
+    CHRONIC_DISEASES("chronicDiseases", "chronicDiseases"),
+    ALLERGIES("allergies", "allergies"),
+    EMERGENCY_CONTACT_NAME("emergencyContactName", "emergencyContactName"),
+    EMERGENCY_CONTACT_PHONE("emergencyContactPhone", "emergencyContactPhone"),
+    IS_ACTIVE("isActive", "isActive"),
+    VERSION("version", "version"),
+    CREATED_AT("createdAt", "createdAt"),
+    UPDATED_AT("updatedAt", "updatedAt");
+
+    private final String key;
+    private final String attribute;
+
+    PatientField(String key, String attribute) {
+        this.key = key;
+        this.attribute = attribute;
+    }
+
+    // JSON key in the response, matching PatientResponseDTO
+    public String getKey() {
+        return key;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Parses a comma separated list such as "fullName,phoneNumber". Response keys follow
+     * the order of this enum, not of the request.
+     */
+    public static Set<PatientField> parse(String fields) {
+        Set<PatientField> parsed = EnumSet.noneOf(PatientField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.key.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new ValidationException("Unknown field '" + trimmed + "'. Allowed fields: "
+                            + Arrays.stream(values()).map(PatientField::getKey).collect(Collectors.joining(", ")))));
+        }
+        if (parsed.isEmpty()) {
+            throw new ValidationException("fields must name at least one field");
+        }
+        return parsed;
+    }
+}
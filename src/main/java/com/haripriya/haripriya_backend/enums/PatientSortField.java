@@ -0,0 +1,58 @@
+package com.haripriya.haripriya_backend.enums;
+
+import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.exception.ValidationException;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Columns patients may be sorted by. Each one is backed by an index on (column, id),
+ * see create-schema.sql, so both page and cursor queries can read it in order.
+ */
+public enum PatientSortField {
+
+    ID("id", Long::valueOf, Patient::getId),
+    PATIENT_CODE("patientCode", value -> value, Patient::getPatientCode),
+    FULL_NAME("fullName", value -> value, Patient::getFullName),
+    CREATED_AT("createdAt", LocalDateTime::parse, Patient::getCreatedAt);
+
+    private final String property;
+    private final Function<String, Object> parser;
+    private final Function<Patient, Object> extractor;
+
+    PatientSortField(String property, Function<String, Object> parser, Function<Patient, Object> extractor) {
+        this.property = property;
+        this.parser = parser;
+        this.extractor = extractor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Sort on this column with id as the tiebreaker, so the order is total.
+     */
+    public Sort toSort(Sort.Direction direction) {
+        return this == ID ? Sort.by(direction, property) : Sort.by(direction, property, ID.property);
+    }
+
+    public String keyOf(Patient patient) {
+        return String.valueOf(extractor.apply(patient));
+    }
+
+    public Object parseKey(String value) {
+        return parser.apply(value);
+    }
+
+    public static PatientSortField fromProperty(String property) {
+        for (PatientSortField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new ValidationException("Sorting is only supported by id, patientCode, fullName and createdAt");
+    }
+}
@@ -0,0 +1,18 @@
+package com.haripriya.haripriya_backend.event;
+
+import com.haripriya.haripriya_backend.repository.PatientIndexRow;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a patient is created, updated or deactivated. Listeners that keep
+ * in-memory views of patients react after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class PatientChangedEvent {
+
+    private final PatientIndexRow patient;
+    // Active status before the change, null for a newly created patient
+    private final Boolean previousIsActive;
+}
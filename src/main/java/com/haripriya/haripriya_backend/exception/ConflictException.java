@@ -0,0 +1,8 @@
+package com.haripriya.haripriya_backend.exception;
+
+public class ConflictException extends CustomException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
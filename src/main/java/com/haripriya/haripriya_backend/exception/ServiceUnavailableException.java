@@ -0,0 +1,14 @@
+package com.haripriya.haripriya_backend.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceUnavailableException extends CustomException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
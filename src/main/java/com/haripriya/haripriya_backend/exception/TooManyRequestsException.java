@@ -0,0 +1,14 @@
+package com.haripriya.haripriya_backend.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends CustomException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
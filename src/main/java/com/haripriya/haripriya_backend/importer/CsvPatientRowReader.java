@@ -0,0 +1,171 @@
+package com.haripriya.haripriya_backend.importer;
+
+import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.Gender;
+import com.haripriya.haripriya_backend.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * RFC 4180 CSV with a header row naming the PatientRequestDTO fields, in any order and
+ * case, with or without underscores (fullName, full_name, FULL_NAME). Quoted values may
+ * contain commas, doubled quotes and line breaks. Empty values are treated as absent.
+ */
+class CsvPatientRowReader implements PatientRowReader {
+
+    private static final Map<String, BiConsumer<PatientRequestDTO, String>> COLUMNS = Map.ofEntries(
+            Map.entry("fullName", PatientRequestDTO::setFullName),
+            Map.entry("gender", (patient, value) -> patient.setGender(parseEnum(Gender.class, "gender", value))),
+            Map.entry("dateOfBirth", (patient, value) -> patient.setDateOfBirth(parseDate(value))),
+            Map.entry("phoneNumber", PatientRequestDTO::setPhoneNumber),
+            Map.entry("email", PatientRequestDTO::setEmail),
+            Map.entry("address", PatientRequestDTO::setAddress),
+            Map.entry("bloodGroup", (patient, value) ->
+                    patient.setBloodGroup(parseEnum(BloodGroup.class, "bloodGroup", value))),
+            Map.entry("chronicDiseases", PatientRequestDTO::setChronicDiseases),
+            Map.entry("allergies", PatientRequestDTO::setAllergies),
+            Map.entry("emergencyContactName", PatientRequestDTO::setEmergencyContactName),
+            Map.entry("emergencyContactPhone", PatientRequestDTO::setEmergencyContactPhone));
+
+    private static final Map<String, BiConsumer<PatientRequestDTO, String>> COLUMNS_BY_KEY = COLUMNS.entrySet()
+            .stream()
+            .collect(Collectors.toMap(entry -> entry.getKey().toLowerCase(Locale.ROOT), Map.Entry::getValue));
+
+    private final BufferedReader reader;
+    private List<BiConsumer<PatientRequestDTO, String>> header;
+    private long rowNumber;
+
+    CsvPatientRowReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public PatientRow next() throws IOException {
+        if (header == null) {
+            List<String> names = readRecord();
+            if (names == null) {
+                return null;
+            }
+            header = parseHeader(names);
+        }
+        List<String> values;
+        do {
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+
+        long number = ++rowNumber;
+        if (values.size() != header.size()) {
+            return PatientRow.failed(number, "Expected " + header.size() + " columns but found " + values.size());
+        }
+        PatientRequestDTO patient = new PatientRequestDTO();
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                String value = values.get(i).trim();
+                if (!value.isEmpty()) {
+                    header.get(i).accept(patient, value);
+                }
+            }
+        } catch (ValidationException ex) {
+            return PatientRow.failed(number, ex.getMessage());
+        }
+        return PatientRow.parsed(number, patient);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static List<BiConsumer<PatientRequestDTO, String>> parseHeader(List<String> names) {
+        List<BiConsumer<PatientRequestDTO, String>> columns = new ArrayList<>(names.size());
+        for (String name : names) {
+            // Spreadsheet exports often start with a byte order mark
+            String trimmed = name.replace("\uFEFF", "").trim();
+            BiConsumer<PatientRequestDTO, String> column =
+                    COLUMNS_BY_KEY.get(trimmed.replace("_", "").toLowerCase(Locale.ROOT));
+            if (column == null) {
+                throw new ValidationException("Unknown CSV column '" + trimmed + "'. Allowed columns: "
+                        + COLUMNS.keySet().stream().sorted().collect(Collectors.joining(", ")));
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    // One record, which may span several lines when a quoted value contains line breaks
+    private List<String> readRecord() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                line = reader.readLine();
+                if (line == null) {
+                    throw new ValidationException("Row " + (rowNumber + 1) + " has an unterminated quoted value");
+                }
+                value.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new ValidationException("dateOfBirth must be an ISO date (yyyy-MM-dd)");
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String column, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new ValidationException(column + " must be one of: " + Arrays.stream(type.getEnumConstants())
+                    .map(Enum::name).collect(Collectors.joining(", ")));
+        }
+    }
+}
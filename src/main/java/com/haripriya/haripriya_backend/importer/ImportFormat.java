@@ -0,0 +1,38 @@
+package com.haripriya.haripriya_backend.importer;
+
+import com.haripriya.haripriya_backend.exception.ValidationException;
+
+import java.io.BufferedReader;
+import java.util.Locale;
+
+/**
+ * Upload formats accepted by POST /api/patients/import, chosen by Content-Type.
+ */
+public enum ImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    ImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public PatientRowReader open(BufferedReader reader, RowParser parser) {
+        return this == CSV ? new CsvPatientRowReader(reader) : new NdjsonPatientRowReader(reader, parser);
+    }
+
+    public static ImportFormat fromContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        for (ImportFormat format : values()) {
+            if (format.mediaType.equals(type)) {
+                return format;
+            }
+        }
+        throw new ValidationException("Content-Type must be text/csv or application/x-ndjson");
+    }
+}
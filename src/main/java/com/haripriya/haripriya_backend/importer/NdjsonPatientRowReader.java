@@ -0,0 +1,42 @@
+package com.haripriya.haripriya_backend.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * One JSON object per line, shaped like the POST /api/patients body. Blank lines are skipped.
+ */
+class NdjsonPatientRowReader implements PatientRowReader {
+
+    private final BufferedReader reader;
+    private final RowParser parser;
+    private long rowNumber;
+
+    NdjsonPatientRowReader(BufferedReader reader, RowParser parser) {
+        this.reader = reader;
+        this.parser = parser;
+    }
+
+    @Override
+    public PatientRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        long number = ++rowNumber;
+        try {
+            return PatientRow.parsed(number, parser.parse(line));
+        } catch (RuntimeException ex) {
+            return PatientRow.failed(number, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
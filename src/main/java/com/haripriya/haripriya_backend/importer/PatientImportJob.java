@@ -0,0 +1,117 @@
+package com.haripriya.haripriya_backend.importer;
+
+import com.haripriya.haripriya_backend.dto.PatientImportErrorDTO;
+import com.haripriya.haripriya_backend.dto.PatientImportJobDTO;
+import com.haripriya.haripriya_backend.enums.ImportStatus;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Progress of one import, written by the import thread and read by status requests.
+ * Only the first maxErrors rejected rows are kept, so memory stays bounded.
+ */
+public class PatientImportJob {
+
+    @Getter
+    private final String id = UUID.randomUUID().toString();
+    @Getter
+    private final ImportFormat format;
+    private final int maxErrors;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<PatientImportErrorDTO> errors = new ArrayList<>();
+    private final ReentrantLock errorsLock = new ReentrantLock();
+
+    private volatile ImportStatus status = ImportStatus.QUEUED;
+    private volatile LocalDateTime startedAt;
+    @Getter
+    private volatile LocalDateTime finishedAt;
+    private volatile String failureMessage;
+
+    public PatientImportJob(ImportFormat format, int maxErrors) {
+        this.format = format;
+        this.maxErrors = maxErrors;
+    }
+
+    public void start() {
+        startedAt = LocalDateTime.now();
+        status = ImportStatus.RUNNING;
+    }
+
+    public void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    public void reject(long row, String message) {
+        rejected.incrementAndGet();
+        errorsLock.lock();
+        try {
+            if (errors.size() < maxErrors) {
+                errors.add(new PatientImportErrorDTO(row, message));
+            }
+        } finally {
+            errorsLock.unlock();
+        }
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public void complete() {
+        finish(ImportStatus.COMPLETED, null);
+    }
+
+    public void fail(String message) {
+        finish(ImportStatus.FAILED, message);
+    }
+
+    private void finish(ImportStatus finalStatus, String message) {
+        failureMessage = message;
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+
+    public PatientImportJobDTO toDTO() {
+        LocalDateTime started = startedAt;
+        LocalDateTime finished = finishedAt;
+        double rowsPerSecond = 0;
+        if (started != null) {
+            long millis = Duration.between(started, finished != null ? finished : LocalDateTime.now()).toMillis();
+            rowsPerSecond = millis == 0 ? 0 : rowsRead.get() * 1000.0 / millis;
+        }
+        List<PatientImportErrorDTO> errorsSoFar;
+        errorsLock.lock();
+        try {
+            errorsSoFar = new ArrayList<>(errors);
+        } finally {
+            errorsLock.unlock();
+        }
+        return PatientImportJobDTO.builder()
+                .jobId(id)
+                .format(format.getMediaType())
+                .status(status)
+                .rowsRead(rowsRead.get())
+                .imported(imported.get())
+                .rejected(rejected.get())
+                .rowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0)
+                .startedAt(started)
+                .finishedAt(finished)
+                .failureMessage(failureMessage)
+                .errors(errorsSoFar)
+                .errorsTruncated(rejected.get() > errorsSoFar.size())
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.haripriya.haripriya_backend.importer;
+
+import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One record of an import file: the parsed patient, or why it could not be parsed.
+ * Rows are numbered from 1, not counting a CSV header.
+ */
+@Getter
+@AllArgsConstructor
+public class PatientRow {
+
+    private final long number;
+    private final PatientRequestDTO patient;
+    private final String error;
+
+    static PatientRow parsed(long number, PatientRequestDTO patient) {
+        return new PatientRow(number, patient, null);
+    }
+
+    static PatientRow failed(long number, String error) {
+        return new PatientRow(number, null, error);
+    }
+}
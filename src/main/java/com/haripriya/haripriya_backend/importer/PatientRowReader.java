@@ -0,0 +1,15 @@
+package com.haripriya.haripriya_backend.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an import file one row at a time, so memory does not grow with the file.
+ */
+public interface PatientRowReader extends Closeable {
+
+    /**
+     * The next row, or null at the end of the file.
+     */
+    PatientRow next() throws IOException;
+}
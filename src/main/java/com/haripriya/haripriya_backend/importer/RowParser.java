@@ -0,0 +1,12 @@
+package com.haripriya.haripriya_backend.importer;
+
+import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
+
+/**
+ * Turns one NDJSON line into a patient; throws with a client-facing message when it cannot.
+ */
+@FunctionalInterface
+public interface RowParser {
+
+    PatientRequestDTO parse(String line);
+}
@@ -0,0 +1,105 @@
+package com.haripriya.haripriya_backend.repository;
+
+import com.haripriya.haripriya_backend.entity.Patient;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plain JDBC inserts for the bulk import. Going around the persistence context keeps
+ * memory flat and sends each chunk as one JDBC batch. Only a taken phone number is
+ * skipped by the INSERT, as an update count of 0; callers leave out rows with a taken
+ * email beforehand, and any other unique violation fails the batch.
+ */
+@Repository
+public class PatientBulkInsertRepository {
+
+    // Must match the allocationSize on Patient.id and the sequence increment in create-schema.sql
+    public static final int ID_BLOCK_SIZE = 50;
+
+    private static final String INSERT = "INSERT INTO testbackendproject.patients (id, patient_code, full_name, "
+            + "gender, date_of_birth, phone_number, email, address, blood_group, chronic_diseases, allergies, "
+            + "emergency_contact_name, emergency_contact_phone, is_active, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (phone_number) DO NOTHING";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PatientBulkInsertRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Allocates count unused ids. Each nextval is the first id of a block of ID_BLOCK_SIZE,
+     * as with Hibernate's pooled-lo optimizer, so these never overlap ids the entity
+     * manager hands out.
+     */
+    public long[] allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> starts = jdbcTemplate.queryForList(
+                "SELECT nextval('testbackendproject.patients_id_seq') FROM generate_series(1, :blocks)",
+                Map.of("blocks", blocks), Long.class);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = starts.get(i / ID_BLOCK_SIZE) + i % ID_BLOCK_SIZE;
+        }
+        return ids;
+    }
+
+    /**
+     * Inserts the patients as one batch in one transaction. The result holds 1 for each
+     * inserted row and 0 for each row skipped because its phone number is taken.
+     */
+    @Transactional
+    public int[] insertAll(List<Patient> patients, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Patient patient = patients.get(i);
+                ps.setLong(1, patient.getId());
+                ps.setString(2, patient.getPatientCode());
+                ps.setString(3, patient.getFullName());
+                ps.setString(4, patient.getGender().name());
+                ps.setObject(5, patient.getDateOfBirth());
+                ps.setString(6, patient.getPhoneNumber());
+                ps.setString(7, patient.getEmail());
+                ps.setString(8, patient.getAddress());
+                ps.setString(9, patient.getBloodGroup() == null ? null : patient.getBloodGroup().name());
+                ps.setString(10, patient.getChronicDiseases());
+                ps.setString(11, patient.getAllergies());
+                ps.setString(12, patient.getEmergencyContactName());
+                ps.setString(13, patient.getEmergencyContactPhone());
+                ps.setBoolean(14, !Boolean.FALSE.equals(patient.getIsActive()));
+                ps.setTimestamp(15, timestamp);
+                ps.setTimestamp(16, timestamp);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return patients.size();
+            }
+        });
+    }
+
+    // Rows with these emails are left out of the batch, as the INSERT only skips phone number conflicts
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT email FROM testbackendproject.patients WHERE email IN (:emails)",
+                Map.of("emails", emails), String.class));
+    }
+}
@@ -0,0 +1,36 @@
+package com.haripriya.haripriya_backend.repository;
+
+import com.haripriya.haripriya_backend.entity.PatientCodeCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Block reservations commit on their own, so a rolled back registration can never hand
+ * the same numbers to another node.
+ */
+@Repository
+public interface PatientCodeCounterRepository extends JpaRepository<PatientCodeCounter, LocalDate> {
+
+    // Empty until the first reservation of the day has created the row
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "UPDATE testbackendproject.patient_code_counters SET last_value = last_value + :blockSize " +
+            "WHERE code_date = :codeDate RETURNING last_value", nativeQuery = true)
+    Optional<Long> reserveBlock(@Param("codeDate") LocalDate codeDate, @Param("blockSize") int blockSize);
+
+    // Starts the day above any code already issued under codePrefix, e.g. by the old random generator
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO testbackendproject.patient_code_counters (code_date, last_value) " +
+            "SELECT :codeDate, COALESCE(MAX(CAST(SUBSTRING(patient_code FROM '[0-9]+$') AS BIGINT)), 0) " +
+            "+ :blockSize FROM testbackendproject.patients WHERE patient_code LIKE :codePrefix || '%' " +
+            "ON CONFLICT (code_date) DO UPDATE SET last_value = patient_code_counters.last_value + :blockSize " +
+            "RETURNING last_value", nativeQuery = true)
+    Long createCounter(@Param("codeDate") LocalDate codeDate, @Param("codePrefix") String codePrefix,
+            @Param("blockSize") int blockSize);
+}
@@ -0,0 +1,28 @@
+package com.haripriya.haripriya_backend.repository;
+
+import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.enums.PatientField;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse reads for fields= requests, mixed into {@link PatientRepository}.
+ */
+public interface PatientFieldQueries {
+
+    /**
+     * Selects only the columns behind the requested fields and returns one map per
+     * patient, keyed like PatientResponseDTO. No entities are loaded.
+     */
+    List<Map<String, Object>> findFields(Set<PatientField> fields, Specification<Patient> specification,
+            Sort sort, long offset, int limit);
+
+    /**
+     * Patients matching the specification per value of one attribute (GROUP BY).
+     */
+    Map<Object, Long> countGroupedBy(String attribute, Specification<Patient> specification);
+}
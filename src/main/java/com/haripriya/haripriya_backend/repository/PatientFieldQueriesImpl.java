@@ -0,0 +1,96 @@
+package com.haripriya.haripriya_backend.repository;
+
+import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.enums.PatientField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class PatientFieldQueriesImpl implements PatientFieldQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Set<PatientField> fields, Specification<Patient> specification,
+            Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Patient> root = query.from(Patient.class);
+
+        // age and dateOfBirth share a column, so select each attribute once
+        Set<String> attributes = new LinkedHashSet<>();
+        for (PatientField field : fields) {
+            attributes.add(field.getAttribute());
+        }
+        List<Selection<?>> selections = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (PatientField field : fields) {
+                Object value = tuple.get(field.getAttribute());
+                if (field == PatientField.AGE) {
+                    value = value == null ? null : Period.between((LocalDate) value, LocalDate.now()).getYears();
+                }
+                row.put(field.getKey(), value);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public Map<Object, Long> countGroupedBy(String attribute, Specification<Patient> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Patient> root = query.from(Patient.class);
+        Path<Object> group = root.get(attribute);
+        query.multiselect(group, cb.count(root));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(group);
+
+        Map<Object, Long> counts = new LinkedHashMap<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            counts.put(tuple.get(0), tuple.get(1, Long.class));
+        }
+        return counts;
+    }
+}
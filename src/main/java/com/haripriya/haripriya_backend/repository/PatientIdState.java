@@ -0,0 +1,8 @@
+package com.haripriya.haripriya_backend.repository;
+
+public interface PatientIdState {
+
+    Long getId();
+
+    Boolean getIsActive();
+}
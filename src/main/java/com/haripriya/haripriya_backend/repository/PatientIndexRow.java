@@ -0,0 +1,36 @@
+package com.haripriya.haripriya_backend.repository;
+
+import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.Gender;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * The searchable and filterable columns of a patient, loaded without the clinical text fields.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class PatientIndexRow {
+
+    private final Long id;
+    private final String fullName;
+    private final String phoneNumber;
+    private final String patientCode;
+    private final Boolean isActive;
+    private final LocalDate dateOfBirth;
+    private final Gender gender;
+    private final BloodGroup bloodGroup;
+    private final LocalDateTime createdAt;
+
+    public static PatientIndexRow of(Patient patient) {
+        return new PatientIndexRow(patient.getId(), patient.getFullName(), patient.getPhoneNumber(),
+                patient.getPatientCode(), patient.getIsActive(), patient.getDateOfBirth(), patient.getGender(),
+                patient.getBloodGroup(), patient.getCreatedAt());
+    }
+}
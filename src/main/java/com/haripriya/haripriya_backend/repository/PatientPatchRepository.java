@@ -0,0 +1,143 @@
+package com.haripriya.haripriya_backend.repository;
+
+import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.Gender;
+import com.haripriya.haripriya_backend.enums.PatientField;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Partial updates as one conditional statement: only the given columns are set, and only
+ * while the row still has the version the client read. The updated row comes back with
+ * RETURNING, so a successful patch is a single round trip. Bulk status changes are
+ * set-based UPDATEs over a bounded chunk of rows each, returning the index columns of the
+ * rows they changed.
+ */
+@Repository
+public class PatientPatchRepository {
+
+    private static final String RETURNING = " RETURNING id, patient_code, full_name, gender, date_of_birth, "
+            + "phone_number, email, address, blood_group, chronic_diseases, allergies, emergency_contact_name, "
+            + "emergency_contact_phone, is_active, version, created_at, updated_at";
+
+    private static final RowMapper<Patient> PATIENT_ROW = (rs, rowNum) -> {
+        String bloodGroup = rs.getString("blood_group");
+        return Patient.builder()
+                .id(rs.getLong("id"))
+                .patientCode(rs.getString("patient_code"))
+                .fullName(rs.getString("full_name"))
+                .gender(Gender.valueOf(rs.getString("gender")))
+                .dateOfBirth(rs.getObject("date_of_birth", LocalDate.class))
+                .phoneNumber(rs.getString("phone_number"))
+                .email(rs.getString("email"))
+                .address(rs.getString("address"))
+                .bloodGroup(bloodGroup == null ? null : BloodGroup.valueOf(bloodGroup))
+                .chronicDiseases(rs.getString("chronic_diseases"))
+                .allergies(rs.getString("allergies"))
+                .emergencyContactName(rs.getString("emergency_contact_name"))
+                .emergencyContactPhone(rs.getString("emergency_contact_phone"))
+                .isActive(rs.getBoolean("is_active"))
+                .version(rs.getLong("version"))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                .build();
+    };
+
+    private static final String SET_ACTIVE = "UPDATE testbackendproject.patients "
+            + "SET is_active = :active, version = version + 1, updated_at = :updatedAt ";
+
+    private static final String RETURNING_INDEX_ROW = " RETURNING id, full_name, phone_number, patient_code, "
+            + "is_active, date_of_birth, gender, blood_group, created_at";
+
+    private static final RowMapper<PatientIndexRow> INDEX_ROW = (rs, rowNum) -> {
+        String bloodGroup = rs.getString("blood_group");
+        return new PatientIndexRow(
+                rs.getLong("id"),
+                rs.getString("full_name"),
+                rs.getString("phone_number"),
+                rs.getString("patient_code"),
+                rs.getBoolean("is_active"),
+                rs.getObject("date_of_birth", LocalDate.class),
+                Gender.valueOf(rs.getString("gender")),
+                bloodGroup == null ? null : BloodGroup.valueOf(bloodGroup),
+                rs.getObject("created_at", LocalDateTime.class));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PatientPatchRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Sets the changed columns (null values clear them) and bumps the version. Empty when
+     * no row has this id and version, i.e. the patient does not exist or was changed since.
+     */
+    public Optional<Patient> updateIfVersion(long id, long expectedVersion, Map<PatientField, Object> changes) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("expectedVersion", expectedVersion)
+                .addValue("updatedAt", LocalDateTime.now());
+        StringBuilder sql = new StringBuilder("UPDATE testbackendproject.patients SET ");
+        changes.forEach((field, value) -> {
+            // Column names come from the enum, never from the request
+            String column = column(field);
+            sql.append(column).append(" = :").append(column).append(", ");
+            if (value instanceof LocalDate) {
+                params.addValue(column, value, Types.DATE);
+            } else {
+                params.addValue(column, value instanceof Enum<?> constant ? constant.name() : value, Types.VARCHAR);
+            }
+        });
+        sql.append("version = version + 1, updated_at = :updatedAt WHERE id = :id AND version = :expectedVersion")
+                .append(RETURNING);
+
+        return jdbcTemplate.query(sql.toString(), params, PATIENT_ROW).stream().findFirst();
+    }
+
+    /**
+     * Sets is_active on those of the ids not already in that state. Callers keep the id
+     * list to one chunk, so the statement and its locks stay bounded.
+     */
+    public List<PatientIndexRow> setActiveByIds(Collection<Long> ids, boolean active) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("active", active)
+                .addValue("updatedAt", LocalDateTime.now());
+        return jdbcTemplate.query(SET_ACTIVE + "WHERE id IN (:ids) AND is_active <> :active" + RETURNING_INDEX_ROW,
+                params, INDEX_ROW);
+    }
+
+    /**
+     * Sets is_active on up to limit patients not in that state and not updated since the
+     * cutoff. Changed rows get a new updated_at, so calling again picks up the next chunk;
+     * an empty result means none are left.
+     */
+    public List<PatientIndexRow> setActiveWhereNotUpdatedSince(LocalDateTime cutoff, boolean active, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("active", active)
+                .addValue("limit", limit)
+                .addValue("updatedAt", LocalDateTime.now());
+        return jdbcTemplate.query(SET_ACTIVE + "WHERE id IN (SELECT id FROM testbackendproject.patients "
+                + "WHERE is_active <> :active AND updated_at < :cutoff ORDER BY id LIMIT :limit)"
+                + RETURNING_INDEX_ROW, params, INDEX_ROW);
+    }
+
+    private static String column(PatientField field) {
+        return field.getAttribute().replaceAll("([A-Z])", "_$1").toLowerCase(Locale.ROOT);
+    }
+}
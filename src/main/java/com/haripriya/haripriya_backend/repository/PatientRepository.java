@@ -1,37 +1,101 @@
 package com.haripriya.haripriya_backend.repository;
 
+import com.haripriya.haripriya_backend.dto.PatientSummaryDTO;
 import com.haripriya.haripriya_backend.entity.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, JpaSpecificationExecutor<Patient>,
+        PatientFieldQueries {
 
     Optional<Patient> findByPatientCode(String patientCode);
 
-    boolean existsByPhoneNumber(String phoneNumber);
+    // List and search views read only the summary columns, never address or the medical history text
+    String SUMMARY_SELECT = "SELECT new com.haripriya.haripriya_backend.dto.PatientSummaryDTO(" +
+            "p.id, p.patientCode, p.fullName, p.gender, p.dateOfBirth, p.phoneNumber, p.isActive) " +
+            "FROM Patient p";
 
-    boolean existsByEmail(String email);
+    String SEARCH_CONDITION = "(LOWER(p.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(p.phoneNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(p.patientCode) LIKE LOWER(CONCAT('%', :searchTerm, '%')))";
 
-    Page<Patient> findByIsActive(Boolean isActive, Pageable pageable);
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(p) FROM Patient p")
+    Page<PatientSummaryDTO> findSummaries(Pageable pageable);
 
-    @Query("SELECT p FROM Patient p WHERE " +
-            "LOWER(p.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.phoneNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.patientCode) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<Patient> searchPatients(@Param("searchTerm") String searchTerm, Pageable pageable);
+    @Query(value = SUMMARY_SELECT + " WHERE p.isActive = :isActive",
+            countQuery = "SELECT COUNT(p) FROM Patient p WHERE p.isActive = :isActive")
+    Page<PatientSummaryDTO> findSummariesByIsActive(@Param("isActive") Boolean isActive, Pageable pageable);
 
-    @Query("SELECT p FROM Patient p WHERE p.isActive = :isActive AND " +
-            "(LOWER(p.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.phoneNumber) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(p.patientCode) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    Page<Patient> searchActivePatients(@Param("searchTerm") String searchTerm,
+    @Query(value = SUMMARY_SELECT + " WHERE " + SEARCH_CONDITION,
+            countQuery = "SELECT COUNT(p) FROM Patient p WHERE " + SEARCH_CONDITION)
+    Page<PatientSummaryDTO> searchPatients(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + " WHERE p.isActive = :isActive AND " + SEARCH_CONDITION,
+            countQuery = "SELECT COUNT(p) FROM Patient p WHERE p.isActive = :isActive AND " + SEARCH_CONDITION)
+    Page<PatientSummaryDTO> searchActivePatients(@Param("searchTerm") String searchTerm,
             @Param("isActive") Boolean isActive,
             Pageable pageable);
+
+    // Slice variants fetch one extra row to compute hasNext and skip the COUNT(*) query
+    @Query(SUMMARY_SELECT)
+    Slice<PatientSummaryDTO> findSummariesSlice(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE p.isActive = :isActive")
+    Slice<PatientSummaryDTO> findSummariesSliceByIsActive(@Param("isActive") Boolean isActive, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE " + SEARCH_CONDITION)
+    Slice<PatientSummaryDTO> searchPatientsSlice(@Param("searchTerm") String searchTerm, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE p.isActive = :isActive AND " + SEARCH_CONDITION)
+    Slice<PatientSummaryDTO> searchActivePatientsSlice(@Param("searchTerm") String searchTerm,
+            @Param("isActive") Boolean isActive,
+            Pageable pageable);
+
+    @Query("SELECT p.isActive AS isActive, COUNT(p) AS total FROM Patient p GROUP BY p.isActive")
+    List<PatientActiveCount> countByActiveStatus();
+
+    // Exact lookups for classified search terms, each served by an index (see create-schema.sql)
+    @Query("SELECT p.id AS id, p.isActive AS isActive FROM Patient p WHERE p.patientCode = :patientCode")
+    List<PatientIdState> findIdStatesByPatientCode(@Param("patientCode") String patientCode);
+
+    @Query("SELECT p.id AS id, p.isActive AS isActive FROM Patient p WHERE LOWER(p.email) = LOWER(:email)")
+    List<PatientIdState> findIdStatesByEmail(@Param("email") String email);
+
+    // Prefix match on the digits of the number, plus a suffix match so a stored country code does not hide it
+    @Query(value = "SELECT id AS id, is_active AS \"isActive\" FROM testbackendproject.patients WHERE " +
+            "regexp_replace(phone_number, '[^0-9]', '', 'g') LIKE :digits || '%' OR " +
+            "reverse(regexp_replace(phone_number, '[^0-9]', '', 'g')) LIKE reverse(:digits) || '%'",
+            nativeQuery = true)
+    List<PatientIdState> findIdStatesByPhoneDigits(@Param("digits") String digits);
+
+    @Query(SUMMARY_SELECT + " WHERE p.id IN :ids")
+    List<PatientSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
+
+    // Keyset batches for building the in-memory search indexes
+    @Query("SELECT new com.haripriya.haripriya_backend.repository.PatientIndexRow(" +
+            "p.id, p.fullName, p.phoneNumber, p.patientCode, p.isActive, p.dateOfBirth, " +
+            "p.gender, p.bloodGroup, p.createdAt) " +
+            "FROM Patient p WHERE p.id > :afterId ORDER BY p.id")
+    List<PatientIndexRow> findIndexRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Patients written since a point in time (idx_patients_updated_at), for picking up other nodes' writes
+    @Query("SELECT new com.haripriya.haripriya_backend.repository.PatientIndexRow(" +
+            "p.id, p.fullName, p.phoneNumber, p.patientCode, p.isActive, p.dateOfBirth, " +
+            "p.gender, p.bloodGroup, p.createdAt) " +
+            "FROM Patient p WHERE p.updatedAt >= :since AND p.id > :afterId ORDER BY p.id")
+    List<PatientIndexRow> findIndexRowsUpdatedSince(@Param("since") LocalDateTime since,
+            @Param("afterId") Long afterId, Limit limit);
 }
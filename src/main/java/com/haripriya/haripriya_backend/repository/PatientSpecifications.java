@@ -0,0 +1,104 @@
+package com.haripriya.haripriya_backend.repository;
+
+import com.haripriya.haripriya_backend.dto.PatientFilter;
+import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.enums.PatientSortField;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+public final class PatientSpecifications {
+
+    private PatientSpecifications() {
+    }
+
+    public static Specification<Patient> hasActiveStatus(Boolean isActive) {
+        return (root, query, cb) -> isActive == null ? cb.conjunction() : cb.equal(root.get("isActive"), isActive);
+    }
+
+    // Same predicate as PatientRepository.searchPatients
+    public static Specification<Patient> matchesSearchTerm(String searchTerm) {
+        String pattern = "%" + searchTerm.toLowerCase(Locale.ROOT) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("fullName")), pattern),
+                cb.like(cb.lower(root.get("phoneNumber")), pattern),
+                cb.like(cb.lower(root.get("patientCode")), pattern));
+    }
+
+    // Same criteria as PatientFacetIndex.filter, for when the index is not available
+    public static Specification<Patient> matchesFilter(PatientFilter filter, LocalDate today) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getGenders() != null && !filter.getGenders().isEmpty()) {
+                predicates.add(root.get("gender").in(filter.getGenders()));
+            }
+            if (filter.getBloodGroups() != null && !filter.getBloodGroups().isEmpty()) {
+                predicates.add(root.get("bloodGroup").in(filter.getBloodGroups()));
+            }
+            if (filter.getIsActive() != null) {
+                predicates.add(cb.equal(root.get("isActive"), filter.getIsActive()));
+            }
+            LocalDate latestBirth = filter.latestDateOfBirth(today);
+            if (latestBirth != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dateOfBirth"), latestBirth));
+            }
+            LocalDate earliestBirth = filter.earliestDateOfBirth(today);
+            if (earliestBirth != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dateOfBirth"), earliestBirth));
+            }
+            if (filter.getRegisteredFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"),
+                        filter.getRegisteredFrom().atStartOfDay()));
+            }
+            if (filter.getRegisteredTo() != null) {
+                predicates.add(cb.lessThan(root.get("createdAt"),
+                        filter.getRegisteredTo().plusDays(1).atStartOfDay()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    public static Specification<Patient> hasPatientCode(String patientCode) {
+        return (root, query, cb) -> cb.equal(root.get("patientCode"), patientCode);
+    }
+
+    public static Specification<Patient> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Patient> patientCodeIn(Collection<String> patientCodes) {
+        return (root, query, cb) -> root.get("patientCode").in(patientCodes);
+    }
+
+    /**
+     * Rows strictly after (sortKey, id) in the given order. The redundant range bound on
+     * the sort column lets PostgreSQL start the (column, id) index scan at the cursor
+     * instead of filtering from the beginning, which keeps deep pages as fast as the first.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Patient> seekAfter(PatientSortField field, Sort.Direction direction,
+            Object sortKey, long id) {
+        boolean ascending = direction.isAscending();
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get("id");
+            if (field == PatientSortField.ID) {
+                return ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            }
+            Expression<Comparable> keyPath = root.get(field.getProperty());
+            Comparable key = (Comparable) sortKey;
+            Predicate bound = ascending ? cb.greaterThanOrEqualTo(keyPath, key) : cb.lessThanOrEqualTo(keyPath, key);
+            Predicate after = ascending
+                    ? cb.or(cb.greaterThan(keyPath, key), cb.greaterThan(idPath, id))
+                    : cb.or(cb.lessThan(keyPath, key), cb.lessThan(idPath, id));
+            return cb.and(bound, after);
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package com.haripriya.haripriya_backend.repository;
+
+import com.haripriya.haripriya_backend.entity.PatientRecord;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of the read queries in {@link PatientRepository}. The search
+ * predicates are the same; results are ordered by id DESC like the default page sort.
+ * Searches read only the summary columns; the other record fields are left null.
+ * Classified terms (see SearchTermClassifier) use the same indexed lookups as the JPA path.
+ */
+@Repository
+public interface ReactivePatientRepository extends R2dbcRepository<PatientRecord, Long> {
+
+    Mono<PatientRecord> findByPatientCode(String patientCode);
+
+    String SUMMARY_COLUMNS = "id, patient_code, full_name, gender, date_of_birth, phone_number, is_active";
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM testbackendproject.patients WHERE " +
+            "LOWER(full_name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(phone_number) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(patient_code) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
+            "ORDER BY id DESC LIMIT :limit OFFSET :offset")
+    Flux<PatientRecord> searchPatients(@Param("searchTerm") String searchTerm,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM testbackendproject.patients WHERE is_active = :isActive AND " +
+            "(LOWER(full_name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(phone_number) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(patient_code) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+            "ORDER BY id DESC LIMIT :limit OFFSET :offset")
+    Flux<PatientRecord> searchActivePatients(@Param("searchTerm") String searchTerm,
+            @Param("isActive") Boolean isActive,
+            @Param("limit") int limit,
+            @Param("offset") long offset);
+
+    // A full code only occurs at the start of itself or of the longer codes extending it, so this
+    // prefix match returns what the substring search would, from the trigram index on patient_code
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM testbackendproject.patients WHERE " +
+            "LOWER(patient_code) LIKE LOWER(:patientCode) || '%' ORDER BY id DESC")
+    Flux<PatientRecord> searchByPatientCode(@Param("patientCode") String patientCode);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM testbackendproject.patients WHERE " +
+            "LOWER(email) = LOWER(:email) ORDER BY id DESC")
+    Flux<PatientRecord> searchByEmail(@Param("email") String email);
+
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM testbackendproject.patients WHERE " +
+            "regexp_replace(phone_number, '[^0-9]', '', 'g') LIKE :digits || '%' OR " +
+            "reverse(regexp_replace(phone_number, '[^0-9]', '', 'g')) LIKE reverse(:digits) || '%' " +
+            "ORDER BY id DESC")
+    Flux<PatientRecord> searchByPhoneDigits(@Param("digits") String digits);
+}
@@ -0,0 +1,10 @@
+package com.haripriya.haripriya_backend.repository;
+
+public interface UserAccountState {
+
+    Long getId();
+
+    Boolean getIsActive();
+
+    Integer getAccountVersion();
+}
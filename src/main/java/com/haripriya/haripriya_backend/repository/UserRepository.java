@@ -3,8 +3,13 @@ package com.haripriya.haripriya_backend.repository;
 import com.haripriya.haripriya_backend.entity.User;
 import com.haripriya.haripriya_backend.enums.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +27,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(Role role);
 
     List<User> findByIsActive(Boolean isActive);
+
+    @Query("SELECT u.id AS id, u.isActive AS isActive, u.accountVersion AS accountVersion FROM User u " +
+            "WHERE u.isActive = false OR u.accountVersion > 0")
+    List<UserAccountState> findAccountStates();
+
+    @Query("SELECT u.id AS id, u.tokensValidAfter AS tokensValidAfter FROM User u WHERE u.tokensValidAfter IS NOT NULL")
+    List<UserTokenEpoch> findTokenEpochs();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.tokensValidAfter = :validAfter WHERE u.id = :id")
+    int updateTokensValidAfter(@Param("id") Long id, @Param("validAfter") LocalDateTime validAfter);
+
+    // Writes only while the row still has the version that was read; 0 when another change got there first
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.role = :role, u.isActive = :isActive, u.accountVersion = u.accountVersion + 1, " +
+            "u.updatedAt = :updatedAt WHERE u.id = :id AND u.accountVersion = :expectedVersion")
+    int updateAccountStateIfVersion(@Param("id") Long id, @Param("expectedVersion") Integer expectedVersion,
+            @Param("role") Role role, @Param("isActive") Boolean isActive, @Param("updatedAt") LocalDateTime updatedAt);
 }
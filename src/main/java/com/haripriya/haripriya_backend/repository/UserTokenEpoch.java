@@ -0,0 +1,10 @@
+package com.haripriya.haripriya_backend.repository;
+
+import java.time.LocalDateTime;
+
+public interface UserTokenEpoch {
+
+    Long getId();
+
+    LocalDateTime getTokensValidAfter();
+}
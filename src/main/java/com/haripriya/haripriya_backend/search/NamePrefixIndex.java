@@ -0,0 +1,379 @@
+package com.haripriya.haripriya_backend.search;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Typeahead over normalized name tokens. Reads binary-search immutable sorted arrays of
+ * (token, patient) and (token, other token, patient) keys and stop after the first N
+ * hits, so cost does not depend on how many names share the prefix. Changes go to a
+ * small overlay that shadows the snapshot until {@link #compact()} folds it in.
+ */
+public class NamePrefixIndex {
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator
+            .comparing((Entry entry) -> entry.normalizedName)
+            .thenComparingLong(Entry::getId);
+
+    private static final Comparator<Match> MATCH_ORDER = Comparator
+            .comparing((Match match) -> match.token)
+            .thenComparing(match -> match.otherToken, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(match -> match.entry, ENTRY_ORDER);
+
+    // Only the first few tokens of very long names are paired, to keep the pair arrays linear in size
+    private static final int MAX_PAIRED_TOKENS = 4;
+    private static final int MAX_SCANNED_KEYS = 20_000;
+
+    private volatile Snapshot snapshot = new Snapshot(new Entry[0]);
+    private final Map<Long, Entry> overlay = new ConcurrentHashMap<>();
+    private volatile long lastChangeMillis;
+
+    /**
+     * Replaces the whole index. Intended for the initial load.
+     */
+    public void load(Collection<Entry> entries) {
+        snapshot = new Snapshot(entries.toArray(new Entry[0]));
+        overlay.clear();
+    }
+
+    public void put(Entry entry) {
+        overlay.put(entry.getId(), entry);
+        lastChangeMillis = System.currentTimeMillis();
+    }
+
+    public int overlaySize() {
+        return overlay.size();
+    }
+
+    public long getLastChangeMillis() {
+        return lastChangeMillis;
+    }
+
+    /**
+     * Up to limit patients with a name token starting with each query token, ordered by
+     * the matching name tokens, then full name.
+     */
+    public List<Entry> suggest(String query, Boolean isActive, int limit) {
+        String[] queryTokens = withoutImpliedPrefixes(tokenize(query));
+        if (queryTokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        Snapshot current = snapshot;
+
+        // Lead with the query token shared by the fewest names, then the most specific other one
+        int primaryIndex = 0;
+        int primaryRange = Integer.MAX_VALUE;
+        for (int t = 0; t < queryTokens.length; t++) {
+            int range = current.singleStart[current.upperRank(queryTokens[t])]
+                    - current.singleStart[current.lowerRank(queryTokens[t])];
+            if (range < primaryRange) {
+                primaryIndex = t;
+                primaryRange = range;
+            }
+        }
+        String primary = queryTokens[primaryIndex];
+        String secondary = null;
+        for (int t = 0; t < queryTokens.length; t++) {
+            if (t != primaryIndex && (secondary == null || queryTokens[t].length() > secondary.length())) {
+                secondary = queryTokens[t];
+            }
+        }
+
+        Collector collector = new Collector(queryTokens, isActive, limit);
+        int primaryTo = current.upperRank(primary);
+        if (secondary == null) {
+            for (int rank = current.lowerRank(primary); rank < primaryTo && !collector.isDone(); rank++) {
+                for (int k = current.singleStart[rank]; k < current.singleStart[rank + 1] && !collector.isDone(); k++) {
+                    collector.offer(current.entries[current.singleEntries[k]], current.dictionary[rank], null);
+                }
+            }
+        } else {
+            // Each full token under the primary prefix owns a block of pairs sorted by the other token
+            int secondaryFrom = current.lowerRank(secondary);
+            int secondaryTo = current.upperRank(secondary);
+            for (int rank = current.lowerRank(primary); rank < primaryTo && !collector.isDone(); rank++) {
+                int to = current.pairLowerBound(rank, secondaryTo);
+                for (int k = current.pairLowerBound(rank, secondaryFrom); k < to && !collector.isDone(); k++) {
+                    long pair = current.pairs[k];
+                    collector.offer(current.entries[(int) pair], current.dictionary[rank],
+                            current.dictionary[(int) (pair >>> 32)]);
+                }
+                collector.scanned++;
+            }
+        }
+
+        List<Match> matches = collector.matches;
+        for (Entry entry : overlay.values()) {
+            if (entry.matches(queryTokens, isActive)) {
+                String otherToken = secondary == null ? null : entry.firstTokenStartingWith(secondary);
+                matches.add(new Match(entry.firstTokenStartingWith(primary), otherToken, entry));
+            }
+        }
+
+        matches.sort(MATCH_ORDER);
+        List<Entry> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (int i = 0; i < matches.size() && result.size() < limit; i++) {
+            result.add(matches.get(i).entry);
+        }
+        return result;
+    }
+
+    /**
+     * Builds a new snapshot including the overlay. Overlay entries replaced while this
+     * runs stay in the overlay and keep shadowing the snapshot.
+     */
+    public void compact() {
+        Map<Long, Entry> pending = Map.copyOf(overlay);
+        if (pending.isEmpty()) {
+            return;
+        }
+        Snapshot current = snapshot;
+        List<Entry> merged = new ArrayList<>(current.entries.length + pending.size());
+        for (Entry entry : current.entries) {
+            if (!pending.containsKey(entry.getId())) {
+                merged.add(entry);
+            }
+        }
+        merged.addAll(pending.values());
+
+        snapshot = new Snapshot(merged.toArray(new Entry[0]));
+        pending.forEach(overlay::remove);
+    }
+
+    // A query token that starts another one adds nothing, and pairs never join a name token with itself
+    private static String[] withoutImpliedPrefixes(String[] queryTokens) {
+        return Arrays.stream(queryTokens)
+                .filter(token -> Arrays.stream(queryTokens)
+                        .noneMatch(other -> other.length() > token.length() && other.startsWith(token)))
+                .toArray(String[]::new);
+    }
+
+    static String[] tokenize(String value) {
+        if (value == null) {
+            return new String[0];
+        }
+        return Arrays.stream(value.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    @Getter
+    public static final class Entry {
+        private final long id;
+        private final String patientCode;
+        private final String fullName;
+        private final LocalDate dateOfBirth;
+        private final boolean active;
+        private final String normalizedName;
+        private final String[] tokens;
+
+        public Entry(long id, String patientCode, String fullName, LocalDate dateOfBirth, boolean active) {
+            this.id = id;
+            this.patientCode = patientCode;
+            this.fullName = fullName;
+            this.dateOfBirth = dateOfBirth;
+            this.active = active;
+            this.normalizedName = fullName == null ? "" : fullName.toLowerCase(Locale.ROOT);
+            this.tokens = tokenize(fullName);
+        }
+
+        boolean matches(String[] queryTokens, Boolean isActive) {
+            if (isActive != null && active != isActive) {
+                return false;
+            }
+            for (String queryToken : queryTokens) {
+                if (firstTokenStartingWith(queryToken) == null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String firstTokenStartingWith(String prefix) {
+            String first = null;
+            for (String token : tokens) {
+                if (token.startsWith(prefix) && (first == null || token.compareTo(first) < 0)) {
+                    first = token;
+                }
+            }
+            return first;
+        }
+    }
+
+    private static final class Match {
+        private final String token;
+        private final String otherToken;
+        private final Entry entry;
+
+        private Match(String token, String otherToken, Entry entry) {
+            this.token = token;
+            this.otherToken = otherToken;
+            this.entry = entry;
+        }
+    }
+
+    private final class Collector {
+        private final String[] queryTokens;
+        private final Boolean isActive;
+        private final int limit;
+        private final List<Match> matches = new ArrayList<>();
+        private final Set<Long> seen = new HashSet<>();
+        private int scanned;
+
+        private Collector(String[] queryTokens, Boolean isActive, int limit) {
+            this.queryTokens = queryTokens;
+            this.isActive = isActive;
+            this.limit = limit;
+        }
+
+        boolean isDone() {
+            return matches.size() >= limit || scanned >= MAX_SCANNED_KEYS;
+        }
+
+        void offer(Entry entry, String token, String otherToken) {
+            scanned++;
+            if (overlay.containsKey(entry.getId()) || !entry.matches(queryTokens, isActive)) {
+                return;
+            }
+            if (seen.add(entry.getId())) {
+                matches.add(new Match(token, otherToken, entry));
+            }
+        }
+    }
+
+    /**
+     * Keys are ints rather than strings: each distinct token has a rank in the sorted
+     * dictionary and each entry a position in name order. The keys of one token are a
+     * contiguous block, entry positions for singles and (other token rank, entry position)
+     * longs for pairs, both sorted, so ranges are found by binary search on the ranks.
+     */
+    private static final class Snapshot {
+        private final Entry[] entries;
+        private final String[] dictionary;
+        // The entries with token rank r are singleEntries[singleStart[r]] to singleEntries[singleStart[r + 1] - 1]
+        private final int[] singleStart;
+        private final int[] singleEntries;
+        private final int[] pairStart;
+        private final long[] pairs;
+
+        private Snapshot(Entry[] unsorted) {
+            this.entries = unsorted.clone();
+            Arrays.sort(entries, ENTRY_ORDER);
+
+            int tokenCount = 0;
+            int maxTokens = 0;
+            for (Entry entry : entries) {
+                tokenCount += entry.tokens.length;
+                maxTokens = Math.max(maxTokens, entry.tokens.length);
+            }
+            String[] tokens = new String[tokenCount];
+            int next = 0;
+            for (Entry entry : entries) {
+                for (String token : entry.tokens) {
+                    tokens[next++] = token;
+                }
+            }
+            Arrays.sort(tokens);
+            int distinct = 0;
+            for (String token : tokens) {
+                if (distinct == 0 || !token.equals(tokens[distinct - 1])) {
+                    tokens[distinct++] = token;
+                }
+            }
+            this.dictionary = Arrays.copyOf(tokens, distinct);
+
+            this.singleStart = new int[distinct + 1];
+            this.pairStart = new int[distinct + 1];
+            int[] ranks = new int[maxTokens];
+            for (Entry entry : entries) {
+                int paired = Math.min(entry.tokens.length, MAX_PAIRED_TOKENS);
+                for (int i = 0; i < entry.tokens.length; i++) {
+                    int rank = rankOf(entry.tokens[i]);
+                    singleStart[rank + 1]++;
+                    if (i < paired) {
+                        pairStart[rank + 1] += paired - 1;
+                    }
+                }
+            }
+            for (int rank = 0; rank < distinct; rank++) {
+                singleStart[rank + 1] += singleStart[rank];
+                pairStart[rank + 1] += pairStart[rank];
+            }
+
+            this.singleEntries = new int[singleStart[distinct]];
+            this.pairs = new long[pairStart[distinct]];
+            int[] singleNext = Arrays.copyOf(singleStart, distinct);
+            int[] pairNext = Arrays.copyOf(pairStart, distinct);
+            for (int position = 0; position < entries.length; position++) {
+                Entry entry = entries[position];
+                int paired = Math.min(entry.tokens.length, MAX_PAIRED_TOKENS);
+                for (int i = 0; i < entry.tokens.length; i++) {
+                    ranks[i] = rankOf(entry.tokens[i]);
+                    // Positions are visited in order, so each block of singles is already sorted
+                    singleEntries[singleNext[ranks[i]]++] = position;
+                }
+                for (int i = 0; i < paired; i++) {
+                    for (int j = 0; j < paired; j++) {
+                        if (i != j) {
+                            pairs[pairNext[ranks[i]]++] = (long) ranks[j] << 32 | position;
+                        }
+                    }
+                }
+            }
+            for (int rank = 0; rank < distinct; rank++) {
+                Arrays.sort(pairs, pairStart[rank], pairStart[rank + 1]);
+            }
+        }
+
+        private int rankOf(String token) {
+            return Arrays.binarySearch(dictionary, token);
+        }
+
+        int upperRank(String prefix) {
+            // Every token starting with the prefix sorts before prefix + the largest char
+            return lowerRank(prefix + Character.MAX_VALUE);
+        }
+
+        int lowerRank(String prefix) {
+            int low = 0;
+            int high = dictionary.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (dictionary[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First pair of the token with this rank whose other token ranks at or after otherRank
+        int pairLowerBound(int rank, int otherRank) {
+            long key = (long) otherRank << 32;
+            int low = pairStart[rank];
+            int high = pairStart[rank + 1];
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (pairs[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
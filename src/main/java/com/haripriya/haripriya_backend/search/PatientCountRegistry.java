@@ -0,0 +1,90 @@
+package com.haripriya.haripriya_backend.search;
+
+import com.haripriya.haripriya_backend.event.PatientChangedEvent;
+import com.haripriya.haripriya_backend.repository.PatientActiveCount;
+import com.haripriya.haripriya_backend.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Active and inactive patient totals kept in memory. Committed changes adjust them and a
+ * periodic GROUP BY re-syncs them, so listings can report a total without a COUNT(*) scan.
+ * Values may drift briefly between re-syncs and are therefore reported as estimates.
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientCountRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientCountRegistry.class);
+
+    private final PatientRepository patientRepository;
+
+    private final AtomicLong active = new AtomicLong();
+    private final AtomicLong inactive = new AtomicLong();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        resync();
+    }
+
+    @Scheduled(initialDelayString = "${patients.counts.resync-interval-ms:600000}",
+            fixedDelayString = "${patients.counts.resync-interval-ms:600000}")
+    public void resync() {
+        try {
+            long activeTotal = 0;
+            long inactiveTotal = 0;
+            for (PatientActiveCount count : patientRepository.countByActiveStatus()) {
+                if (Boolean.TRUE.equals(count.getIsActive())) {
+                    activeTotal += count.getTotal();
+                } else {
+                    inactiveTotal += count.getTotal();
+                }
+            }
+            active.set(activeTotal);
+            inactive.set(inactiveTotal);
+            loaded = true;
+            logger.debug("Re-synced patient counts: {} active, {} inactive", activeTotal, inactiveTotal);
+        } catch (Exception ex) {
+            logger.error("Could not re-sync patient counts", ex);
+        }
+    }
+
+    /**
+     * Estimated number of patients with the given status (all patients for null),
+     * or null before the first sync.
+     */
+    public Long estimate(Boolean isActive) {
+        if (!loaded) {
+            return null;
+        }
+        if (isActive == null) {
+            return active.get() + inactive.get();
+        }
+        return isActive ? active.get() : inactive.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        boolean nowActive = Boolean.TRUE.equals(event.getPatient().getIsActive());
+        Boolean previous = event.getPreviousIsActive();
+        if (previous == null) {
+            counter(nowActive).incrementAndGet();
+        } else if (previous != nowActive) {
+            counter(previous).decrementAndGet();
+            counter(nowActive).incrementAndGet();
+        }
+    }
+
+    private AtomicLong counter(boolean isActive) {
+        return isActive ? active : inactive;
+    }
+}
@@ -0,0 +1,334 @@
+package com.haripriya.haripriya_backend.search;
+
+import com.haripriya.haripriya_backend.dto.PatientFilter;
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.Gender;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmaps of patient ids per gender, blood group and active flag, plus the birth and
+ * registration day of each id, for /api/patients/filter. Ids are dense identity values,
+ * so a BitSet indexed by id costs one bit per id issued and every AND, OR and count
+ * runs a 64-bit word at a time. Facet counts are intersections of these bitmaps.
+ * <p>
+ * Date ranges are answered from the ids sorted by each day: two binary searches find
+ * the matching run, so a range costs its matches rather than a pass over every patient.
+ * Patients put since the sort are checked one by one until enough of them pile up to
+ * sort again.
+ */
+public class PatientFacetIndex {
+
+    // Beyond this the per-id day arrays get too large and filtering goes to the database
+    static final long MAX_ID = 1L << 24;
+
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    // The sorted days are rebuilt once more than this many patients, or a 16th of them, changed
+    private static final int MIN_RESORT_CHANGES = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet present = new BitSet();
+    private final BitSet active = new BitSet();
+    private final Map<Gender, BitSet> genders = new EnumMap<>(Gender.class);
+    private final Map<BloodGroup, BitSet> bloodGroups = new EnumMap<>(BloodGroup.class);
+    private int[] birthDays = new int[0];
+    private int[] registeredDays = new int[0];
+    // day << 32 | id, sorted; an entry is stale when the id's day has changed since
+    private long[] birthOrder = new long[0];
+    private long[] registeredOrder = new long[0];
+    // Ids put since the sorted days were built
+    private final BitSet changed = new BitSet();
+    private volatile int changedCount;
+    private boolean overflow;
+
+    public PatientFacetIndex() {
+        for (Gender gender : Gender.values()) {
+            genders.put(gender, new BitSet());
+        }
+        for (BloodGroup bloodGroup : BloodGroup.values()) {
+            bloodGroups.put(bloodGroup, new BitSet());
+        }
+    }
+
+    /**
+     * Adds or replaces a patient.
+     */
+    public void put(long id, Gender gender, BloodGroup bloodGroup, boolean isActive, LocalDate dateOfBirth,
+            LocalDate registeredOn) {
+        lock.writeLock().lock();
+        try {
+            if (id < 0 || id >= MAX_ID) {
+                overflow = true;
+                return;
+            }
+            int bit = (int) id;
+            genders.values().forEach(bitmap -> bitmap.clear(bit));
+            bloodGroups.values().forEach(bitmap -> bitmap.clear(bit));
+
+            present.set(bit);
+            active.set(bit, isActive);
+            if (gender != null) {
+                genders.get(gender).set(bit);
+            }
+            if (bloodGroup != null) {
+                bloodGroups.get(bloodGroup).set(bit);
+            }
+            ensureCapacity(bit);
+            birthDays[bit] = dateOfBirth == null ? NO_DAY : (int) dateOfBirth.toEpochDay();
+            registeredDays[bit] = registeredOn == null ? NO_DAY : (int) registeredOn.toEpochDay();
+            if (!changed.get(bit)) {
+                changed.set(bit);
+                changedCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * False once an id too large for the index was seen; callers then use the database.
+     */
+    public boolean isUsable() {
+        lock.readLock().lock();
+        try {
+            return !overflow;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return present.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Matching ids and per-facet counts. Each facet is counted with every filter except
+     * its own, so the counts show what selecting another value of that facet would return.
+     */
+    public Result filter(PatientFilter filter, LocalDate today) {
+        if (needsResort()) {
+            lock.writeLock().lock();
+            try {
+                if (needsResort()) {
+                    resort();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        lock.readLock().lock();
+        try {
+            BitSet ranged = inRanges(filter, today);
+            BitSet genderMask = union(genders, filter.getGenders());
+            BitSet bloodGroupMask = union(bloodGroups, filter.getBloodGroups());
+            BitSet activeMask = null;
+            if (filter.getIsActive() != null) {
+                activeMask = (BitSet) active.clone();
+                if (!filter.getIsActive()) {
+                    activeMask.flip(0, present.length());
+                }
+            }
+
+            Result result = new Result(and(ranged, genderMask, bloodGroupMask, activeMask));
+
+            BitSet withoutGender = and(ranged, bloodGroupMask, activeMask);
+            genders.forEach((gender, bitmap) -> result.genderCounts.put(gender, intersection(withoutGender, bitmap)));
+
+            BitSet withoutBloodGroup = and(ranged, genderMask, activeMask);
+            bloodGroups.forEach((bloodGroup, bitmap) ->
+                    result.bloodGroupCounts.put(bloodGroup, intersection(withoutBloodGroup, bitmap)));
+
+            BitSet withoutActive = and(ranged, genderMask, bloodGroupMask);
+            long activeCount = intersection(withoutActive, active);
+            result.activeCounts.put(true, activeCount);
+            result.activeCounts.put(false, withoutActive.cardinality() - activeCount);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet inRanges(PatientFilter filter, LocalDate today) {
+        LocalDate latestBirth = filter.latestDateOfBirth(today);
+        LocalDate earliestBirth = filter.earliestDateOfBirth(today);
+        BitSet matches = (BitSet) present.clone();
+        if (earliestBirth != null || latestBirth != null) {
+            matches.and(inRange(birthOrder, birthDays,
+                    earliestBirth == null ? Integer.MIN_VALUE + 1 : (int) earliestBirth.toEpochDay(),
+                    latestBirth == null ? Integer.MAX_VALUE : (int) latestBirth.toEpochDay()));
+        }
+        if (filter.getRegisteredFrom() != null || filter.getRegisteredTo() != null) {
+            matches.and(inRange(registeredOrder, registeredDays,
+                    filter.getRegisteredFrom() == null ? Integer.MIN_VALUE + 1
+                            : (int) filter.getRegisteredFrom().toEpochDay(),
+                    filter.getRegisteredTo() == null ? Integer.MAX_VALUE
+                            : (int) filter.getRegisteredTo().toEpochDay()));
+        }
+        return matches;
+    }
+
+    // Ids whose day is within [from, to]: the sorted entries that are still current, plus the changed ids
+    private BitSet inRange(long[] order, int[] days, int from, int to) {
+        BitSet matches = new BitSet(present.length());
+        int end = to == Integer.MAX_VALUE ? order.length : lowerBound(order, (long) (to + 1) << 32);
+        for (int i = lowerBound(order, (long) from << 32); i < end; i++) {
+            int id = (int) order[i];
+            if (days[id] == (int) (order[i] >> 32)) {
+                matches.set(id);
+            }
+        }
+        for (int id = changed.nextSetBit(0); id >= 0; id = changed.nextSetBit(id + 1)) {
+            if (days[id] >= from && days[id] <= to) {
+                matches.set(id);
+            }
+        }
+        return matches;
+    }
+
+    private static int lowerBound(long[] order, long key) {
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (order[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean needsResort() {
+        int count = changedCount;
+        return count > MIN_RESORT_CHANGES && count > birthOrder.length >> 4;
+    }
+
+    private void resort() {
+        birthOrder = sortedByDay(birthDays);
+        registeredOrder = sortedByDay(registeredDays);
+        changed.clear();
+        changedCount = 0;
+    }
+
+    // Patients without the day are left out; no range includes them
+    private long[] sortedByDay(int[] days) {
+        long[] order = new long[present.cardinality()];
+        int count = 0;
+        for (int id = present.nextSetBit(0); id >= 0; id = present.nextSetBit(id + 1)) {
+            if (days[id] != NO_DAY) {
+                order[count++] = (long) days[id] << 32 | id;
+            }
+        }
+        order = Arrays.copyOf(order, count);
+        Arrays.sort(order);
+        return order;
+    }
+
+    private static <E extends Enum<E>> BitSet union(Map<E, BitSet> bitmaps, Collection<E> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet union = new BitSet();
+        for (E value : values) {
+            union.or(bitmaps.get(value));
+        }
+        return union;
+    }
+
+    // Null masks do not filter
+    private static BitSet and(BitSet base, BitSet... masks) {
+        BitSet result = (BitSet) base.clone();
+        for (BitSet mask : masks) {
+            if (mask != null) {
+                result.and(mask);
+            }
+        }
+        return result;
+    }
+
+    private static long intersection(BitSet left, BitSet right) {
+        BitSet both = (BitSet) left.clone();
+        both.and(right);
+        return both.cardinality();
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < birthDays.length) {
+            return;
+        }
+        int capacity = Math.max(id + 1, birthDays.length + (birthDays.length >> 1));
+        int from = birthDays.length;
+        birthDays = Arrays.copyOf(birthDays, capacity);
+        registeredDays = Arrays.copyOf(registeredDays, capacity);
+        Arrays.fill(birthDays, from, capacity, NO_DAY);
+        Arrays.fill(registeredDays, from, capacity, NO_DAY);
+    }
+
+    /**
+     * A private snapshot of one filter evaluation.
+     */
+    public static final class Result {
+        private final BitSet matches;
+        private final Map<Gender, Long> genderCounts = new EnumMap<>(Gender.class);
+        private final Map<BloodGroup, Long> bloodGroupCounts = new EnumMap<>(BloodGroup.class);
+        private final Map<Boolean, Long> activeCounts = new LinkedHashMap<>();
+
+        private Result(BitSet matches) {
+            this.matches = matches;
+        }
+
+        public long getTotal() {
+            return matches.cardinality();
+        }
+
+        public Map<Gender, Long> getGenderCounts() {
+            return genderCounts;
+        }
+
+        public Map<BloodGroup, Long> getBloodGroupCounts() {
+            return bloodGroupCounts;
+        }
+
+        public Map<Boolean, Long> getActiveCounts() {
+            return activeCounts;
+        }
+
+        /**
+         * Up to limit matching ids after skipping offset, highest first when descending.
+         */
+        public List<Long> pageIds(long offset, int limit, boolean descending) {
+            List<Long> ids = new ArrayList<>(limit);
+            long skipped = 0;
+            int id = descending ? matches.previousSetBit(matches.length() - 1) : matches.nextSetBit(0);
+            while (id >= 0 && ids.size() < limit) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    ids.add((long) id);
+                }
+                id = descending ? matches.previousSetBit(id - 1) : matches.nextSetBit(id + 1);
+            }
+            return ids;
+        }
+
+        public List<Long> allIds() {
+            return matches.stream().mapToObj(id -> (long) id).toList();
+        }
+    }
+}
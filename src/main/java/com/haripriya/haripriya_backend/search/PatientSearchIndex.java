@@ -0,0 +1,312 @@
+package com.haripriya.haripriya_backend.search;
+
+import com.haripriya.haripriya_backend.dto.PatientFilter;
+import com.haripriya.haripriya_backend.event.PatientChangedEvent;
+import com.haripriya.haripriya_backend.repository.PatientIndexRow;
+import com.haripriya.haripriya_backend.repository.PatientRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a {@link TrigramIndex} of all patients for /api/patients/search, a
+ * {@link NamePrefixIndex} for /api/patients/suggest and a {@link PatientFacetIndex} for
+ * /api/patients/filter. All are loaded in one keyset scan on a background thread after
+ * startup and then follow committed patient changes: this node's right away through
+ * {@link PatientChangedEvent}, other nodes' (and bulk SQL) within one refresh interval by
+ * re-reading rows whose updated_at falls in a trailing window. Until the first load
+ * finishes, {@link #search}, {@link #suggest} and {@link #filter} return null and callers
+ * query the database as before; a failed load is retried with backoff.
+ */
+@Component
+public class PatientSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    private final PatientRepository patientRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int suggestMaxOverlay;
+    private final long suggestQuietPeriodMs;
+    private final Duration refreshLookback;
+    private final long retryInitialMs;
+    private final long retryMaxMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile TrigramIndex index;
+    private volatile NamePrefixIndex names;
+    private volatile PatientFacetIndex facets;
+    private List<PatientIndexRow> pendingChanges;
+
+    // Refresh window state, reset by each successful build
+    private volatile LocalDateTime refreshedFrom;
+    private volatile Map<Long, PatientIndexRow> lastRefreshRows = Map.of();
+    private volatile long nextRebuildAtMillis = Long.MAX_VALUE;
+    private long retryDelayMs;
+
+    public PatientSearchIndex(PatientRepository patientRepository, MeterRegistry meterRegistry,
+            @Value("${patients.search-index.enabled:true}") boolean enabled,
+            @Value("${patients.search-index.batch-size:5000}") int batchSize,
+            @Value("${patients.suggest.max-overlay:2000}") int suggestMaxOverlay,
+            @Value("${patients.suggest.quiet-period-ms:30000}") long suggestQuietPeriodMs,
+            @Value("${patients.search-index.refresh-lookback-ms:120000}") long refreshLookbackMs,
+            @Value("${patients.search-index.retry-initial-ms:30000}") long retryInitialMs,
+            @Value("${patients.search-index.retry-max-ms:600000}") long retryMaxMs) {
+        this.patientRepository = patientRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.suggestMaxOverlay = suggestMaxOverlay;
+        this.suggestQuietPeriodMs = suggestQuietPeriodMs;
+        this.refreshLookback = Duration.ofMillis(refreshLookbackMs);
+        this.retryInitialMs = retryInitialMs;
+        this.retryMaxMs = retryMaxMs;
+        this.retryDelayMs = retryInitialMs;
+
+        Gauge.builder("patients.search.index.size", this, self -> self.index == null ? 0 : self.index.size())
+                .register(meterRegistry);
+        Gauge.builder("patients.search.index.posting.bytes", this,
+                        self -> self.index == null ? 0 : self.index.postingBytes())
+                .register(meterRegistry);
+        Gauge.builder("patients.facet.index.size", this, self -> self.facets == null ? 0 : self.facets.size())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Reloads the index from the database in the background. The current index keeps
+     * serving (and receiving changes) until the new one replaces it.
+     */
+    public void rebuildAsync() {
+        lock.lock();
+        try {
+            if (pendingChanges != null) {
+                return;
+            }
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+        Thread builder = new Thread(this::rebuild, "patient-search-index");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    /**
+     * Ids of matching patients in ascending order, or null when the index cannot answer
+     * the query (not loaded yet, term too short, or LIKE wildcards in the term).
+     */
+    public long[] search(String searchTerm, Boolean isActive) {
+        TrigramIndex current = index;
+        if (current == null || searchTerm == null || searchTerm.length() < TrigramIndex.MIN_TERM_LENGTH) {
+            return null;
+        }
+        // The database query treats these as LIKE wildcards; keep those semantics there
+        if (searchTerm.indexOf('%') >= 0 || searchTerm.indexOf('_') >= 0 || searchTerm.indexOf('\\') >= 0) {
+            return null;
+        }
+        return current.search(searchTerm, isActive);
+    }
+
+    /**
+     * Name typeahead from memory, or null when the index is not loaded.
+     */
+    public List<NamePrefixIndex.Entry> suggest(String query, Boolean isActive, int limit) {
+        NamePrefixIndex current = names;
+        return current == null ? null : current.suggest(query, isActive, limit);
+    }
+
+    /**
+     * Matching ids and facet counts from memory, or null when the index is not loaded
+     * or cannot hold every patient id.
+     */
+    public PatientFacetIndex.Result filter(PatientFilter filter) {
+        PatientFacetIndex current = facets;
+        return current == null || !current.isUsable() ? null : current.filter(filter, LocalDate.now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPatientChanged(PatientChangedEvent event) {
+        applyChange(event.getPatient());
+    }
+
+    /**
+     * Catches up with patients written where no local event saw it: other nodes and bulk
+     * SQL. Rows updated within the lookback window before the last refresh are read again,
+     * so a write that committed late or on a node with a slightly different clock is still
+     * picked up; rows unchanged since the previous refresh are skipped. A row read just
+     * before a local change can briefly overwrite it, until the next run reads it again.
+     * Also retries a failed initial build once its backoff has passed.
+     */
+    @Scheduled(initialDelayString = "${patients.search-index.refresh-interval-ms:15000}",
+            fixedDelayString = "${patients.search-index.refresh-interval-ms:15000}")
+    public void refreshChanges() {
+        if (!enabled) {
+            return;
+        }
+        if (index == null) {
+            if (System.currentTimeMillis() >= nextRebuildAtMillis) {
+                nextRebuildAtMillis = Long.MAX_VALUE;
+                rebuildAsync();
+            }
+            return;
+        }
+        LocalDateTime from = refreshedFrom;
+        if (from == null) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = from.minus(refreshLookback);
+        Map<Long, PatientIndexRow> seen = new HashMap<>();
+        int applied = 0;
+        try {
+            long afterId = 0;
+            List<PatientIndexRow> batch;
+            do {
+                batch = patientRepository.findIndexRowsUpdatedSince(since, afterId, Limit.of(batchSize));
+                for (PatientIndexRow row : batch) {
+                    seen.put(row.getId(), row);
+                    if (!row.equals(lastRefreshRows.get(row.getId()))) {
+                        applyChange(row);
+                        applied++;
+                    }
+                    afterId = row.getId();
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception ex) {
+            // The window is kept, so the next run reads these rows again
+            logger.error("Could not refresh the patient search index", ex);
+            return;
+        }
+        lastRefreshRows = seen;
+        refreshedFrom = now;
+        if (applied > 0) {
+            logger.debug("Patient search index caught up with {} changed patients", applied);
+        }
+    }
+
+    private void applyChange(PatientIndexRow row) {
+        lock.lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(row);
+            }
+            if (index != null) {
+                apply(index, names, facets, row);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Folds typeahead changes into a new sorted snapshot once enough have piled up, or
+     * once writes have been quiet for a while, so bursts of edits cause a single rebuild.
+     */
+    @Scheduled(fixedDelayString = "${patients.suggest.compact-check-interval-ms:5000}")
+    public void compactSuggestions() {
+        NamePrefixIndex current = names;
+        if (current == null || current.overlaySize() == 0) {
+            return;
+        }
+        boolean quiet = System.currentTimeMillis() - current.getLastChangeMillis() >= suggestQuietPeriodMs;
+        if (quiet || current.overlaySize() >= suggestMaxOverlay) {
+            current.compact();
+        }
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        // Writes from other nodes during the scan are caught by the first refresh from here
+        LocalDateTime scanStart = LocalDateTime.now();
+        try {
+            TrigramIndex fresh = new TrigramIndex();
+            NamePrefixIndex freshNames = new NamePrefixIndex();
+            PatientFacetIndex freshFacets = new PatientFacetIndex();
+            List<NamePrefixIndex.Entry> entries = new ArrayList<>();
+            long afterId = 0;
+            List<PatientIndexRow> batch;
+            do {
+                batch = patientRepository.findIndexRowsAfter(afterId, Limit.of(batchSize));
+                for (PatientIndexRow row : batch) {
+                    apply(fresh, null, freshFacets, row);
+                    entries.add(toEntry(row));
+                    afterId = row.getId();
+                }
+            } while (batch.size() == batchSize);
+            fresh.trim();
+            freshNames.load(entries);
+
+            lock.lock();
+            try {
+                // Changes committed while loading may be missing from the batches already read
+                pendingChanges.forEach(row -> apply(fresh, freshNames, freshFacets, row));
+                pendingChanges = null;
+                index = fresh;
+                names = freshNames;
+                facets = freshFacets;
+            } finally {
+                lock.unlock();
+            }
+            lastRefreshRows = Map.of();
+            refreshedFrom = scanStart;
+            retryDelayMs = retryInitialMs;
+            logger.info("Patient search index built with {} patients in {} ms",
+                    fresh.size(), System.currentTimeMillis() - start);
+        } catch (Exception ex) {
+            lock.lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.unlock();
+            }
+            if (index == null) {
+                nextRebuildAtMillis = System.currentTimeMillis() + retryDelayMs;
+                logger.error("Could not build the patient search index, searches keep using the database; "
+                        + "retrying in {} ms", retryDelayMs, ex);
+                retryDelayMs = Math.min(retryDelayMs * 2, retryMaxMs);
+            } else {
+                logger.error("Could not rebuild the patient search index, the current one keeps serving", ex);
+            }
+        }
+    }
+
+    private static void apply(TrigramIndex target, NamePrefixIndex targetNames, PatientFacetIndex targetFacets,
+            PatientIndexRow row) {
+        boolean active = Boolean.TRUE.equals(row.getIsActive());
+        target.put(row.getId(), row.getFullName(), row.getPhoneNumber(), row.getPatientCode(), active);
+        if (targetNames != null) {
+            targetNames.put(toEntry(row));
+        }
+        targetFacets.put(row.getId(), row.getGender(), row.getBloodGroup(), active, row.getDateOfBirth(),
+                row.getCreatedAt() == null ? null : row.getCreatedAt().toLocalDate());
+    }
+
+    private static NamePrefixIndex.Entry toEntry(PatientIndexRow row) {
+        return new NamePrefixIndex.Entry(row.getId(), row.getPatientCode(), row.getFullName(),
+                row.getDateOfBirth(), Boolean.TRUE.equals(row.getIsActive()));
+    }
+}
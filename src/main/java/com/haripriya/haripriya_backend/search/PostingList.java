@@ -0,0 +1,74 @@
+package com.haripriya.haripriya_backend.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only list of ascending int ordinals stored as delta-encoded varints.
+ * Most gaps fit in one or two bytes, so a posting list costs a fraction of an int[].
+ * Not thread-safe; {@link TrigramIndex} guards access with its lock.
+ */
+final class PostingList {
+
+    private byte[] data = new byte[4];
+    private int length;
+    private int count;
+    private int last = -1;
+
+    void add(int ordinal) {
+        if (ordinal <= last) {
+            throw new IllegalArgumentException("Ordinals must be added in ascending order");
+        }
+        int delta = ordinal - last;
+        ensureCapacity(5);
+        while ((delta & ~0x7F) != 0) {
+            data[length++] = (byte) ((delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        data[length++] = (byte) delta;
+        last = ordinal;
+        count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int last() {
+        return last;
+    }
+
+    int sizeInBytes() {
+        return data.length;
+    }
+
+    int[] toArray() {
+        int[] ordinals = new int[count];
+        int position = 0;
+        int value = -1;
+        for (int i = 0; i < count; i++) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            value += delta;
+            ordinals[i] = value;
+        }
+        return ordinals;
+    }
+
+    void trim() {
+        if (data.length != length) {
+            data = Arrays.copyOf(data, length);
+        }
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.haripriya.haripriya_backend.search;
+
+import java.util.regex.Pattern;
+
+/**
+ * Decides which lookup can answer a front-desk search term. Only unambiguous shapes
+ * are routed to indexed lookups; anything that could also be part of a name, phone
+ * number or code stays on the general substring search.
+ */
+public final class SearchTermClassifier {
+
+    public enum Kind {
+        PATIENT_CODE,
+        EMAIL,
+        PHONE,
+        TEXT
+    }
+
+    // Numbers are zero-padded to four digits and widen past 9999 on busy days
+    private static final Pattern PATIENT_CODE = Pattern.compile("(?i)PAT-\\d{8}-\\d{4,}");
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+    private static final Pattern PHONE = Pattern.compile("\\+?[\\d\\s()-]+");
+    // The end of a patient code's date and its number, as in 20261018-1234 or 1018-12345
+    private static final Pattern CODE_FRAGMENT = Pattern.compile("\\d{1,8}-\\d+");
+
+    // No patient code contains 10 digits without a dash between them, so unless the term could be
+    // the tail of a code (digits, one dash, digits), it can only be a phone number
+    private static final int MIN_PHONE_DIGITS = 10;
+
+    private SearchTermClassifier() {
+    }
+
+    public static Kind classify(String searchTerm) {
+        if (searchTerm == null) {
+            return Kind.TEXT;
+        }
+        String term = searchTerm.trim();
+        if (PATIENT_CODE.matcher(term).matches()) {
+            return Kind.PATIENT_CODE;
+        }
+        if (EMAIL.matcher(term).matches()) {
+            return Kind.EMAIL;
+        }
+        if (PHONE.matcher(term).matches() && digitsOf(term).length() >= MIN_PHONE_DIGITS
+                && !CODE_FRAGMENT.matcher(term).matches()) {
+            return Kind.PHONE;
+        }
+        return Kind.TEXT;
+    }
+
+    public static String digitsOf(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+}
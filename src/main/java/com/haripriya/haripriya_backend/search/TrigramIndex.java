@@ -0,0 +1,204 @@
+package com.haripriya.haripriya_backend.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram inverted index answering case-insensitive substring matches over a patient's
+ * name, phone number and code, i.e. the same rows as LOWER(col) LIKE '%term%'.
+ * <p>
+ * Every document version gets a new int ordinal, so posting lists only ever grow at
+ * the tail and stay compressed. Updates tombstone the old ordinal; once tombstones
+ * make up a quarter of the index it is renumbered from the live documents.
+ * Candidates from the rarest trigram are confirmed with a plain substring check, so
+ * results are exact.
+ */
+public class TrigramIndex {
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final int MIN_COMPACTION_TOMBSTONES = 10_000;
+
+    public static final int MIN_TERM_LENGTH = 3;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<Long, PostingList> postings = new HashMap<>();
+    private Map<Long, Integer> ordinalById = new HashMap<>();
+    private long[] ids = new long[1024];
+    private String[] texts = new String[1024];
+    private BitSet active = new BitSet();
+    private BitSet deleted = new BitSet();
+    private int nextOrdinal;
+    private int tombstones;
+
+    public void put(long id, String fullName, String phoneNumber, String patientCode, boolean isActive) {
+        String text = normalize(fullName) + FIELD_SEPARATOR + normalize(phoneNumber)
+                + FIELD_SEPARATOR + normalize(patientCode);
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            append(id, text, isActive);
+            if (tombstones >= MIN_COMPACTION_TOMBSTONES && tombstones * 4 >= nextOrdinal) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of all documents containing the term, ascending. Returns null when the term is
+     * too short for trigram lookup, leaving the query to the caller's fallback.
+     */
+    public long[] search(String term, Boolean isActive) {
+        String needle = normalize(term);
+        if (needle.length() < MIN_TERM_LENGTH) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            PostingList rarest = null;
+            for (int i = 0; i + 3 <= needle.length(); i++) {
+                PostingList list = postings.get(trigram(needle, i));
+                if (list == null) {
+                    return new long[0];
+                }
+                if (rarest == null || list.size() < rarest.size()) {
+                    rarest = list;
+                }
+            }
+
+            int[] candidates = rarest.toArray();
+            long[] matches = new long[candidates.length];
+            int found = 0;
+            for (int ordinal : candidates) {
+                if (deleted.get(ordinal)) {
+                    continue;
+                }
+                if (isActive != null && active.get(ordinal) != isActive) {
+                    continue;
+                }
+                if (texts[ordinal].contains(needle)) {
+                    matches[found++] = ids[ordinal];
+                }
+            }
+            long[] result = Arrays.copyOf(matches, found);
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long postingBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (PostingList list : postings.values()) {
+                bytes += list.sizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the slack left by growing posting lists. Call once after a bulk load.
+     */
+    public void trim() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(PostingList::trim);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeInternal(long id) {
+        Integer previous = ordinalById.remove(id);
+        if (previous != null) {
+            deleted.set(previous);
+            texts[previous] = null;
+            tombstones++;
+        }
+    }
+
+    private void append(long id, String text, boolean isActive) {
+        int ordinal = nextOrdinal++;
+        if (ordinal == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            texts = Arrays.copyOf(texts, texts.length * 2);
+        }
+        ids[ordinal] = id;
+        texts[ordinal] = text;
+        active.set(ordinal, isActive);
+        ordinalById.put(id, ordinal);
+
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            if (text.charAt(i) == FIELD_SEPARATOR || text.charAt(i + 1) == FIELD_SEPARATOR
+                    || text.charAt(i + 2) == FIELD_SEPARATOR) {
+                continue;
+            }
+            PostingList list = postings.computeIfAbsent(trigram(text, i), key -> new PostingList());
+            // The same trigram can occur twice in one document; ordinals must stay strictly ascending
+            if (list.last() != ordinal) {
+                list.add(ordinal);
+            }
+        }
+    }
+
+    private void compact() {
+        long[] oldIds = ids;
+        String[] oldTexts = texts;
+        BitSet oldActive = active;
+        int oldSize = nextOrdinal;
+
+        postings = new HashMap<>();
+        ordinalById = new HashMap<>();
+        ids = new long[Math.max(1024, oldSize - tombstones)];
+        texts = new String[ids.length];
+        active = new BitSet();
+        deleted = new BitSet();
+        nextOrdinal = 0;
+        tombstones = 0;
+
+        for (int ordinal = 0; ordinal < oldSize; ordinal++) {
+            if (oldTexts[ordinal] != null) {
+                append(oldIds[ordinal], oldTexts[ordinal], oldActive.get(ordinal));
+            }
+        }
+        postings.values().forEach(PostingList::trim);
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -27,7 +27,8 @@ public class CustomUserDetailsService implements UserDetailsService {
                 user.getEmail(),
                 user.getPassword(),
                 user.getRole(),
-                user.getIsActive());
+                user.getIsActive(),
+                user.getAccountVersion());
     }
 
     @Transactional
@@ -41,6 +42,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 user.getEmail(),
                 user.getPassword(),
                 user.getRole(),
-                user.getIsActive());
+                user.getIsActive(),
+                user.getAccountVersion());
     }
 }
@@ -0,0 +1,84 @@
+package com.haripriya.haripriya_backend.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.util.StringUtils;
+
+import java.text.ParseException;
+import java.util.Map;
+
+/**
+ * ES256 signing and verification with a kid-tagged EC key. The encoder, decoder and
+ * key set are built once, so verification never re-reads or re-derives key material.
+ * Other services can verify tokens locally from the published JWKS.
+ */
+public class EcJwtCodec {
+
+    private final ECKey signingKey;
+    private final JWKSet publicKeySet;
+    private final JwtEncoder encoder;
+    private final JwtDecoder decoder;
+
+    public EcJwtCodec(String jwkJson) {
+        this.signingKey = load(jwkJson);
+        this.publicKeySet = new JWKSet(signingKey.toPublicJWK());
+        this.encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey)));
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(
+                JWSAlgorithm.ES256, new ImmutableJWKSet<>(publicKeySet)));
+        this.decoder = new NimbusJwtDecoder(processor);
+    }
+
+    public String encode(JwtClaimsSet claims) {
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.ES256)
+                .keyId(signingKey.getKeyID())
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    /**
+     * Verifies signature and expiry. Throws a Spring JwtException when the token is not valid.
+     */
+    public Jwt decode(String token) {
+        return decoder.decode(token);
+    }
+
+    public Map<String, Object> publicJwks() {
+        return publicKeySet.toJSONObject();
+    }
+
+    /**
+     * Every node must sign with the same key and keep it across restarts, so there is no
+     * generated fallback: a missing or unusable key stops the application at startup.
+     */
+    private static ECKey load(String jwkJson) {
+        if (!StringUtils.hasText(jwkJson)) {
+            throw new IllegalStateException("jwt.signing-algorithm=ES256 needs jwt.ec.jwk (JWT_EC_JWK), "
+                    + "a private P-256 JWK with a kid shared by all nodes");
+        }
+        try {
+            ECKey key = ECKey.parse(jwkJson);
+            if (!key.isPrivate() || key.getKeyID() == null) {
+                throw new IllegalStateException("jwt.ec.jwk must be a private EC key with a kid");
+            }
+            return key;
+        } catch (ParseException ex) {
+            throw new IllegalStateException("Could not load the ES256 signing key", ex);
+        }
+    }
+}
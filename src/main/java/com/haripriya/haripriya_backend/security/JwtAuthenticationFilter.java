@@ -1,5 +1,7 @@
 package com.haripriya.haripriya_backend.security;
 
+import com.haripriya.haripriya_backend.config.RoutingDataSource;
+import com.haripriya.haripriya_backend.enums.Role;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,9 +9,9 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -25,11 +27,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final TokenPrincipalCache tokenPrincipalCache;
+    private final UserAccountStateRegistry accountStateRegistry;
+    private final TokenRevocationService tokenRevocationService;
+
+    // "database" loads the user row for every new token, "claims" trusts the signed claims
+    @Value("${jwt.auth-mode:database}")
+    private String authMode;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getServletPath();
-        return path.equals("/") || path.equals("/ready") || path.startsWith("/health") || path.startsWith("/actuator");
+        return path.equals("/") || path.equals("/ready") || path.startsWith("/health") || path.startsWith("/actuator")
+                || path.startsWith("/.well-known");
     }
 
     @Override
@@ -39,17 +49,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
+            if (StringUtils.hasText(jwt)) {
+                UserPrincipal userPrincipal = resolvePrincipal(jwt);
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (userPrincipal != null && isAllowed(userPrincipal)) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userPrincipal,
+                            null,
+                            userPrincipal.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             logger.error("Could not set user authentication in security context", ex);
@@ -58,7 +69,55 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String getJwtFromRequest(HttpServletRequest request) {
+    private UserPrincipal resolvePrincipal(String jwt) {
+        // A cache hit skips both signature verification and the user lookup
+        TokenPrincipalCache.CachedToken cached = tokenPrincipalCache.get(jwt);
+        if (cached == null) {
+            VerifiedToken token = tokenProvider.verifyToken(jwt);
+            if (token == null) {
+                return null;
+            }
+
+            UserPrincipal userPrincipal = "claims".equalsIgnoreCase(authMode)
+                    ? principalFromClaims(token)
+                    : principalFromDatabase(token.getUserId());
+            cached = tokenPrincipalCache.put(jwt, userPrincipal, token);
+        }
+
+        VerifiedToken token = cached.getToken();
+        if (tokenRevocationService.isRevoked(token.getJti(), token.getUserId(), token.getIssuedAtMillis())) {
+            logger.debug("Rejected revoked token for user: {}", token.getUserId());
+            return null;
+        }
+        return cached.getPrincipal();
+    }
+
+    private UserPrincipal principalFromDatabase(Long userId) {
+        UserPrincipal userPrincipal = RoutingDataSource.callOn(RoutingDataSource.Pool.AUTH,
+                () -> (UserPrincipal) customUserDetailsService.loadUserById(userId));
+        // The principal is cached until the token expires; token auth never needs the password hash
+        userPrincipal.setPassword(null);
+        return userPrincipal;
+    }
+
+    private UserPrincipal principalFromClaims(VerifiedToken token) {
+        return new UserPrincipal(
+                token.getUserId(),
+                token.getFullName(),
+                token.getEmail(),
+                null,
+                Role.valueOf(token.getRole()),
+                true,
+                token.getAccountVersion());
+    }
+
+    private boolean isAllowed(UserPrincipal userPrincipal) {
+        // Checked on every request, cache hits included, so deactivation takes effect within one refresh interval
+        return userPrincipal.isEnabled()
+                && accountStateRegistry.isAllowed(userPrincipal.getId(), userPrincipal.getAccountVersion());
+    }
+
+    public static String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
@@ -2,14 +2,20 @@ package com.haripriya.haripriya_backend.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
@@ -22,8 +28,28 @@ public class JwtTokenProvider {
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // HS512 signs with the shared secret, ES256 with the EC key published at /.well-known/jwks.json
+    @Value("${jwt.signing-algorithm:HS512}")
+    private String signingAlgorithm;
+
+    @Value("${jwt.ec.jwk:}")
+    private String ecJwk;
+
+    // Built once; the keys, parser and codec are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser jwtParser;
+    private EcJwtCodec ecJwtCodec;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        if ("ES256".equalsIgnoreCase(signingAlgorithm)) {
+            this.ecJwtCodec = new EcJwtCodec(ecJwk);
+            logger.info("Signing JWTs with ES256");
+        }
     }
 
     public String generateToken(Authentication authentication) {
@@ -32,33 +58,56 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
+        if (ecJwtCodec != null) {
+            return generateEcToken(userPrincipal, now, expiryDate);
+        }
+
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(Long.toString(userPrincipal.getId()))
                 .claim("email", userPrincipal.getEmail())
                 .claim("role", userPrincipal.getRole().name())
+                .claim("name", userPrincipal.getFullName())
+                .claim("ver", userPrincipal.getAccountVersion())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return Long.parseLong(claims.getSubject());
+        VerifiedToken verifiedToken = verifyToken(token);
+        if (verifiedToken == null) {
+            throw new IllegalArgumentException("Invalid JWT token");
+        }
+        return verifiedToken.getUserId();
     }
 
     public boolean validateToken(String authToken) {
+        return verifyToken(authToken) != null;
+    }
+
+    /**
+     * Parses and verifies the token in a single pass.
+     * Returns null when the token is not valid.
+     */
+    public VerifiedToken verifyToken(String authToken) {
+        if (ecJwtCodec != null) {
+            return verifyEcToken(authToken);
+        }
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser
+                    .parseClaimsJws(authToken)
+                    .getBody();
+            return new VerifiedToken(
+                    Long.parseLong(claims.getSubject()),
+                    claims.getId(),
+                    claims.get("email", String.class),
+                    claims.get("role", String.class),
+                    claims.get("name", String.class),
+                    claims.get("ver", Integer.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                    claims.getExpiration().getTime());
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -67,9 +116,60 @@ public class JwtTokenProvider {
             logger.error("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             logger.error("Unsupported JWT token");
+        } catch (JwtException ex) {
+            logger.error("JWT validation failed: {}", ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            logger.error("JWT claims string is empty");
+        }
+        return null;
+    }
+
+    /**
+     * Public half of the ES256 key set; empty when tokens are signed with the shared secret.
+     */
+    public Map<String, Object> getPublicJwks() {
+        if (ecJwtCodec == null) {
+            return Map.of("keys", List.of());
+        }
+        return ecJwtCodec.publicJwks();
+    }
+
+    private String generateEcToken(UserPrincipal userPrincipal, Date now, Date expiryDate) {
+        JwtClaimsSet.Builder claims = JwtClaimsSet.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(Long.toString(userPrincipal.getId()))
+                .claim("email", userPrincipal.getEmail())
+                .claim("role", userPrincipal.getRole().name())
+                .issuedAt(now.toInstant())
+                .expiresAt(expiryDate.toInstant());
+        // JwtClaimsSet rejects null claim values
+        if (userPrincipal.getFullName() != null) {
+            claims.claim("name", userPrincipal.getFullName());
+        }
+        if (userPrincipal.getAccountVersion() != null) {
+            claims.claim("ver", userPrincipal.getAccountVersion());
+        }
+        return ecJwtCodec.encode(claims.build());
+    }
+
+    private VerifiedToken verifyEcToken(String authToken) {
+        try {
+            Jwt jwt = ecJwtCodec.decode(authToken);
+            Object version = jwt.getClaim("ver");
+            return new VerifiedToken(
+                    Long.parseLong(jwt.getSubject()),
+                    jwt.getId(),
+                    jwt.getClaimAsString("email"),
+                    jwt.getClaimAsString("role"),
+                    jwt.getClaimAsString("name"),
+                    version instanceof Number number ? number.intValue() : null,
+                    jwt.getIssuedAt() != null ? jwt.getIssuedAt().toEpochMilli() : 0L,
+                    jwt.getExpiresAt().toEpochMilli());
+        } catch (org.springframework.security.oauth2.jwt.JwtException ex) {
+            logger.error("Invalid ES256 JWT: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
         }
-        return false;
+        return null;
     }
 }
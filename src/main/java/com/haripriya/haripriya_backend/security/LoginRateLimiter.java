@@ -0,0 +1,136 @@
+package com.haripriya.haripriya_backend.security;
+
+import com.haripriya.haripriya_backend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process token-bucket throttle for /auth/login, keyed by client IP and by email.
+ * Buckets live in lock-striped LRU maps so memory stays bounded under a spray of keys.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+    private final Stripe[] stripes;
+
+    private final double emailCapacity;
+    private final double emailRefillPerNano;
+    private final double ipCapacity;
+    private final double ipRefillPerNano;
+
+    private final Counter rejectedByEmail;
+    private final Counter rejectedByIp;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+            @Value("${auth.login-throttle.stripes:16}") int stripeCount,
+            @Value("${auth.login-throttle.max-entries:10000}") int maxEntries,
+            @Value("${auth.login-throttle.email.capacity:5}") int emailCapacity,
+            @Value("${auth.login-throttle.email.refill-per-minute:5}") int emailRefillPerMinute,
+            @Value("${auth.login-throttle.ip.capacity:30}") int ipCapacity,
+            @Value("${auth.login-throttle.ip.refill-per-minute:30}") int ipRefillPerMinute) {
+        int entriesPerStripe = Math.max(1, maxEntries / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(entriesPerStripe);
+        }
+
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPerNano = emailRefillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerNano = ipRefillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+
+        this.rejectedByEmail = Counter.builder("auth.login.throttled")
+                .tag("key", "email")
+                .register(meterRegistry);
+        this.rejectedByIp = Counter.builder("auth.login.throttled")
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one token from both the IP and the email bucket.
+     * Throws before any lookup or hashing happens when either bucket is empty.
+     */
+    public void checkLoginAttempt(String email, String clientIp) {
+        long retryAfter = tryAcquire("ip:" + clientIp, ipCapacity, ipRefillPerNano);
+        if (retryAfter > 0) {
+            rejectedByIp.increment();
+            logger.warn("Login throttled for IP: {}", clientIp);
+            throw new TooManyRequestsException("Too many login attempts, please try again later", retryAfter);
+        }
+
+        String normalizedEmail = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+        retryAfter = tryAcquire("email:" + normalizedEmail, emailCapacity, emailRefillPerNano);
+        if (retryAfter > 0) {
+            rejectedByEmail.increment();
+            logger.warn("Login throttled for email: {}", normalizedEmail);
+            throw new TooManyRequestsException("Too many login attempts, please try again later", retryAfter);
+        }
+    }
+
+    /**
+     * Returns 0 when a token was taken, otherwise the number of seconds until one is available.
+     */
+    private long tryAcquire(String key, double capacity, double refillPerNano) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+        long now = System.nanoTime();
+
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefillNanos) * refillPerNano);
+                bucket.lastRefillNanos = now;
+            }
+
+            if (bucket.tokens >= 1.0) {
+                bucket.tokens -= 1.0;
+                return 0;
+            }
+            double nanosUntilToken = (1.0 - bucket.tokens) / refillPerNano;
+            return Math.max(1, (long) Math.ceil(nanosUntilToken / TimeUnit.SECONDS.toNanos(1)));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Bucket> buckets;
+
+        private Stripe(int maxEntries) {
+            // Access-ordered, so the least recently seen key is evicted first
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+    }
+}
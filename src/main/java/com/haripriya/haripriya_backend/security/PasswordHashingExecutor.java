@@ -0,0 +1,133 @@
+package com.haripriya.haripriya_backend.security;
+
+import com.haripriya.haripriya_backend.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a small dedicated pool. Every caller waits on its Tomcat thread, so the
+ * number of hashes in flight (running or queued) is capped below the Tomcat thread count;
+ * past the cap the caller is turned away with 503 at once, leaving the remaining Tomcat
+ * threads for other requests.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore inFlight;
+    private final long timeoutMs;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.max-in-flight:0}") int maxInFlight,
+            @Value("${server.tomcat.threads.max:200}") int tomcatThreads,
+            @Value("${auth.password-hashing.timeout-ms:5000}") long timeoutMs) {
+        // 0 means half the Tomcat threads; never more than all but one of them
+        int inFlightLimit = Math.max(1, Math.min(maxInFlight > 0 ? maxInFlight : tomcatThreads / 2,
+                tomcatThreads - 1));
+        int poolSize = Math.min(threads > 0 ? threads : Runtime.getRuntime().availableProcessors(), inFlightLimit);
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = timeoutMs;
+        this.inFlight = new Semaphore(inFlightLimit);
+        // The semaphore already bounds the work, the queue only has to hold what it lets through
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(inFlightLimit),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        logger.info("Password hashing pool started with {} threads, at most {} hashes in flight",
+                poolSize, inFlightLimit);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    private <T> T run(Callable<T> task) {
+        if (!inFlight.tryAcquire()) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many sign-in requests in progress, please retry shortly", 1);
+        }
+        try {
+            return await(task);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many sign-in requests in progress, please retry shortly", 1);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceUnavailableException("Sign-in is taking longer than expected, please retry shortly", 2);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Sign-in was interrupted, please retry", 1);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,136 @@
+package com.haripriya.haripriya_backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of already verified JWTs to the principal they resolved to.
+ * Entries expire together with the token, so a hit never outlives the token's exp claim.
+ * When full, eviction is second-chance: entries read since the last sweep are kept once
+ * and cold ones go first, without a lock or reordering on the read path.
+ */
+@Component
+public class TokenPrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenPrincipalCache.class);
+
+    private final Map<String, CachedToken> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public TokenPrincipalCache(@Value("${jwt.cache.max-size:5000}") int maxSize,
+            MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("auth.token.cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("auth.token.cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("auth.token.cache.evictions")
+                .register(meterRegistry);
+        Gauge.builder("auth.token.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public CachedToken get(String token) {
+        CachedToken entry = entries.get(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.getExpiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(token, entry);
+            misses.increment();
+            return null;
+        }
+        entry.referenced = true;
+        hits.increment();
+        return entry;
+    }
+
+    public CachedToken put(String token, UserPrincipal principal, VerifiedToken verifiedToken) {
+        CachedToken entry = new CachedToken(principal, verifiedToken);
+        if (maxSize <= 0) {
+            return entry;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(token, entry);
+        return entry;
+    }
+
+    public void invalidate(String token) {
+        entries.remove(token);
+    }
+
+    /**
+     * Drops every cached token of the given user. Call this whenever the user is
+     * changed or deactivated so the next request reloads the account.
+     */
+    public void invalidateUser(Long userId) {
+        entries.values().removeIf(entry -> entry.getPrincipal().getId().equals(userId));
+        logger.debug("Invalidated cached tokens for user: {}", userId);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.values().removeIf(entry -> entry.getExpiresAtMillis() <= now);
+
+        // Still full: drop roughly a tenth of the entries to make room in one go. The first pass
+        // only takes entries not read since the last sweep and clears the bit on the others,
+        // the second takes whatever is left to reach the target
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        for (int pass = 0; pass < 2 && toRemove > 0; pass++) {
+            Iterator<CachedToken> iterator = entries.values().iterator();
+            while (toRemove > 0 && iterator.hasNext()) {
+                CachedToken entry = iterator.next();
+                if (pass == 0 && entry.referenced) {
+                    entry.referenced = false;
+                    continue;
+                }
+                iterator.remove();
+                toRemove--;
+            }
+        }
+        evictions.increment(before - entries.size());
+    }
+
+    @Getter
+    public static final class CachedToken {
+        private final UserPrincipal principal;
+        private final VerifiedToken token;
+        // Set on every hit, cleared by the eviction sweep that spares the entry
+        @Getter(AccessLevel.NONE)
+        private volatile boolean referenced;
+
+        private CachedToken(UserPrincipal principal, VerifiedToken token) {
+            this.principal = principal;
+            this.token = token;
+        }
+
+        public long getExpiresAtMillis() {
+            return token.getExpiresAtMillis();
+        }
+    }
+}
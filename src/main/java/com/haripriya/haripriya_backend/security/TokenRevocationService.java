@@ -0,0 +1,266 @@
+package com.haripriya.haripriya_backend.security;
+
+import com.haripriya.haripriya_backend.config.RoutingDataSource;
+import com.haripriya.haripriya_backend.entity.RevokedToken;
+import com.haripriya.haripriya_backend.repository.RevokedTokenRepository;
+import com.haripriya.haripriya_backend.repository.UserRepository;
+import com.haripriya.haripriya_backend.repository.UserTokenEpoch;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token revocation backed by the revoked_tokens table and users.tokens_valid_after.
+ * Both are mirrored in memory: a Bloom filter in front of an exact jti set, and a sorted
+ * array of per-user epochs. The per-request check does no allocation and no I/O.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final int bloomBits;
+
+    // Revocations made on this node, kept until expiry so a rebuild never drops them
+    private final Map<String, Long> localRevocations = new ConcurrentHashMap<>();
+    private final ReentrantLock epochLock = new ReentrantLock();
+
+    private volatile RevokedJtis revokedJtis;
+    private volatile UserEpochs userEpochs = new UserEpochs(new long[0], new long[0]);
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+            UserRepository userRepository,
+            @Value("${jwt.revocation.bloom-bits:65536}") int bloomBits) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        // Power of two so the bit index is a mask instead of a modulo
+        this.bloomBits = Integer.highestOneBit(Math.max(64, bloomBits));
+        this.revokedJtis = new RevokedJtis(this.bloomBits);
+    }
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    /**
+     * Hot path for the JWT filter. Constant time and allocation-free when the token is not revoked.
+     */
+    public boolean isRevoked(String jti, long userId, long issuedAtMillis) {
+        if (userEpochs.isBeforeEpoch(userId, issuedAtMillis)) {
+            return true;
+        }
+        return jti != null && revokedJtis.contains(jti);
+    }
+
+    public void revoke(VerifiedToken token) {
+        if (token.getJti() == null) {
+            // Tokens issued before jti was added can only be revoked through the user epoch
+            revokeAllForUser(token.getUserId());
+            return;
+        }
+
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(token.getJti())
+                .userId(token.getUserId())
+                .expiresAt(toLocalDateTime(token.getExpiresAtMillis()))
+                .revokedAt(LocalDateTime.now())
+                .build());
+
+        localRevocations.put(token.getJti(), token.getExpiresAtMillis());
+        revokedJtis.add(token.getJti());
+        logger.info("Revoked token {} for user {}", token.getJti(), token.getUserId());
+    }
+
+    public void revokeAllForUser(Long userId) {
+        // JWT iat has second precision. Rounding down keeps tokens issued later in this second (a fresh
+        // login right after the logout) valid; the rare token issued earlier in the same second survives
+        long epochMillis = System.currentTimeMillis() / 1000 * 1000;
+        userRepository.updateTokensValidAfter(userId, toLocalDateTime(epochMillis));
+
+        epochLock.lock();
+        try {
+            userEpochs = userEpochs.with(userId, epochMillis);
+        } finally {
+            epochLock.unlock();
+        }
+        logger.info("Revoked all tokens for user {}", userId);
+    }
+
+    @Scheduled(initialDelayString = "${jwt.revocation.refresh-interval-ms:30000}",
+            fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        RoutingDataSource.runOn(RoutingDataSource.Pool.AUTH, this::reload);
+    }
+
+    private void reload() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            revokedTokenRepository.deleteExpired(now);
+
+            RevokedJtis rebuilt = new RevokedJtis(bloomBits);
+            for (String jti : revokedTokenRepository.findActiveJtis(now)) {
+                rebuilt.add(jti);
+            }
+            long nowMillis = System.currentTimeMillis();
+            localRevocations.entrySet().removeIf(entry -> entry.getValue() <= nowMillis);
+            localRevocations.keySet().forEach(rebuilt::add);
+            this.revokedJtis = rebuilt;
+            // Second pass catches revocations that landed in the old filter while rebuilding
+            localRevocations.keySet().forEach(rebuilt::add);
+
+            List<UserTokenEpoch> epochs = userRepository.findTokenEpochs();
+            epochLock.lock();
+            try {
+                // Keep local epochs whose update may not have been visible to the query yet
+                this.userEpochs = UserEpochs.from(epochs).mergeNewer(userEpochs);
+            } finally {
+                epochLock.unlock();
+            }
+            logger.debug("Refreshed revocations: {} tokens, {} user epochs", rebuilt.exact.size(), epochs.size());
+        } catch (Exception ex) {
+            logger.error("Could not refresh token revocations", ex);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class RevokedJtis {
+        private static final int HASHES = 3;
+
+        private final AtomicLongArray bits;
+        private final int mask;
+        private final Set<String> exact = ConcurrentHashMap.newKeySet();
+
+        private RevokedJtis(int bitCount) {
+            this.bits = new AtomicLongArray(bitCount >>> 6);
+            this.mask = bitCount - 1;
+        }
+
+        private void add(String jti) {
+            exact.add(jti);
+            int h1 = jti.hashCode();
+            int h2 = secondaryHash(jti);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                int word = bit >>> 6;
+                long flag = 1L << (bit & 63);
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & flag) == 0 && !bits.compareAndSet(word, current, current | flag));
+            }
+        }
+
+        private boolean contains(String jti) {
+            int h1 = jti.hashCode();
+            int h2 = secondaryHash(jti);
+            for (int i = 0; i < HASHES; i++) {
+                int bit = (h1 + i * h2) & mask;
+                if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            // Bloom filter says maybe: confirm against the exact set
+            return exact.contains(jti);
+        }
+
+        // FNV-1a over the chars, odd so double hashing visits distinct bits
+        private static int secondaryHash(String value) {
+            int hash = 0x811c9dc5;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash | 1;
+        }
+    }
+
+    private static final class UserEpochs {
+        private final long[] userIds;
+        private final long[] epochMillis;
+
+        private UserEpochs(long[] userIds, long[] epochMillis) {
+            this.userIds = userIds;
+            this.epochMillis = epochMillis;
+        }
+
+        private static UserEpochs from(List<UserTokenEpoch> epochs) {
+            long[][] pairs = new long[epochs.size()][];
+            for (int i = 0; i < epochs.size(); i++) {
+                UserTokenEpoch epoch = epochs.get(i);
+                pairs[i] = new long[] { epoch.getId(), toEpochMillis(epoch.getTokensValidAfter()) };
+            }
+            Arrays.sort(pairs, (a, b) -> Long.compare(a[0], b[0]));
+
+            long[] ids = new long[pairs.length];
+            long[] millis = new long[pairs.length];
+            for (int i = 0; i < pairs.length; i++) {
+                ids[i] = pairs[i][0];
+                millis[i] = pairs[i][1];
+            }
+            return new UserEpochs(ids, millis);
+        }
+
+        private boolean isBeforeEpoch(long userId, long issuedAtMillis) {
+            if (userIds.length == 0) {
+                return false;
+            }
+            int index = Arrays.binarySearch(userIds, userId);
+            return index >= 0 && issuedAtMillis < epochMillis[index];
+        }
+
+        private UserEpochs mergeNewer(UserEpochs other) {
+            UserEpochs merged = this;
+            for (int i = 0; i < other.userIds.length; i++) {
+                int index = Arrays.binarySearch(merged.userIds, other.userIds[i]);
+                if (index < 0 || merged.epochMillis[index] < other.epochMillis[i]) {
+                    merged = merged.with(other.userIds[i], other.epochMillis[i]);
+                }
+            }
+            return merged;
+        }
+
+        private UserEpochs with(long userId, long epoch) {
+            int index = Arrays.binarySearch(userIds, userId);
+            if (index >= 0) {
+                long[] millis = epochMillis.clone();
+                millis[index] = epoch;
+                return new UserEpochs(userIds, millis);
+            }
+
+            int insertAt = -index - 1;
+            long[] ids = new long[userIds.length + 1];
+            long[] millis = new long[userIds.length + 1];
+            System.arraycopy(userIds, 0, ids, 0, insertAt);
+            System.arraycopy(epochMillis, 0, millis, 0, insertAt);
+            ids[insertAt] = userId;
+            millis[insertAt] = epoch;
+            System.arraycopy(userIds, insertAt, ids, insertAt + 1, userIds.length - insertAt);
+            System.arraycopy(epochMillis, insertAt, millis, insertAt + 1, userIds.length - insertAt);
+            return new UserEpochs(ids, millis);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.haripriya.haripriya_backend.security;
+
+import com.haripriya.haripriya_backend.config.RoutingDataSource;
+import com.haripriya.haripriya_backend.repository.UserAccountState;
+import com.haripriya.haripriya_backend.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Periodically refreshed snapshot of the few accounts that are deactivated or whose
+ * account version was bumped. Lets the JWT filter enforce isActive without loading
+ * the user row on every request.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserAccountStateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAccountStateRegistry.class);
+
+    private final UserRepository userRepository;
+
+    // Held from the query to the swap in refresh(), so a refresh that read the rows before a local
+    // change was committed cannot publish its snapshot after apply() and drop that change
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Set<Long> deactivatedUserIds = Set.of();
+    private volatile Map<Long, Integer> accountVersions = Map.of();
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${jwt.account-state.refresh-interval-ms:30000}",
+            fixedDelayString = "${jwt.account-state.refresh-interval-ms:30000}")
+    public void refresh() {
+        lock.lock();
+        try {
+            Set<Long> deactivated = new HashSet<>();
+            Map<Long, Integer> versions = new HashMap<>();
+            List<UserAccountState> states = RoutingDataSource.callOn(RoutingDataSource.Pool.AUTH,
+                    userRepository::findAccountStates);
+            for (UserAccountState state : states) {
+                if (Boolean.FALSE.equals(state.getIsActive())) {
+                    deactivated.add(state.getId());
+                }
+                if (state.getAccountVersion() != null && state.getAccountVersion() > 0) {
+                    versions.put(state.getId(), state.getAccountVersion());
+                }
+            }
+            this.deactivatedUserIds = Set.copyOf(deactivated);
+            this.accountVersions = Map.copyOf(versions);
+            logger.debug("Refreshed account states: {} deactivated, {} versioned",
+                    deactivated.size(), versions.size());
+        } catch (Exception ex) {
+            // Keep serving the previous snapshot; the next run will retry
+            logger.error("Could not refresh user account states", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a committed change made on this node right away instead of at the next
+     * refresh. Other nodes pick it up within one refresh interval. Waits for a refresh in
+     * progress, whose rows may predate the change.
+     */
+    public void apply(Long userId, boolean isActive, int accountVersion) {
+        lock.lock();
+        try {
+            // Two changes to the same user may finish out of order; the higher version is the later one
+            Integer current = accountVersions.get(userId);
+            if (current != null && current > accountVersion) {
+                return;
+            }
+            Set<Long> deactivated = new HashSet<>(deactivatedUserIds);
+            if (isActive) {
+                deactivated.remove(userId);
+            } else {
+                deactivated.add(userId);
+            }
+            Map<Long, Integer> versions = new HashMap<>(accountVersions);
+            versions.put(userId, accountVersion);
+            this.deactivatedUserIds = Set.copyOf(deactivated);
+            this.accountVersions = Map.copyOf(versions);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns false when the user is deactivated or the token carries an
+     * account version older than the current one.
+     */
+    public boolean isAllowed(Long userId, Integer tokenAccountVersion) {
+        if (deactivatedUserIds.contains(userId)) {
+            return false;
+        }
+        Integer currentVersion = accountVersions.get(userId);
+        if (currentVersion == null) {
+            return true;
+        }
+        return tokenAccountVersion != null && tokenAccountVersion >= currentVersion;
+    }
+}
@@ -22,6 +22,7 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private Role role;
     private Boolean isActive;
+    private Integer accountVersion;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
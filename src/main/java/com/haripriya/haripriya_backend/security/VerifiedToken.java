@@ -0,0 +1,18 @@
+package com.haripriya.haripriya_backend.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+
+    private final Long userId;
+    private final String jti;
+    private final String email;
+    private final String role;
+    private final String fullName;
+    private final Integer accountVersion;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+}
@@ -9,7 +9,11 @@ public interface AuthService {
 
     UserResponse register(RegisterRequest registerRequest);
 
+    void logout(String token, boolean allSessions);
+
     UserResponse getCurrentUser(Long userId);
 
+    UserResponse updateAccountState(Long userId, UserAccountUpdateRequest updateRequest);
+
     User getUserById(Long userId);
 }
@@ -0,0 +1,12 @@
+package com.haripriya.haripriya_backend.service;
+
+import com.haripriya.haripriya_backend.dto.PatientImportJobDTO;
+
+import java.io.InputStream;
+
+public interface PatientImportService {
+
+    PatientImportJobDTO startImport(InputStream body, String contentType);
+
+    PatientImportJobDTO getImportJob(String jobId);
+}
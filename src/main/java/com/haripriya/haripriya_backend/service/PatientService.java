@@ -1,18 +1,34 @@
 package com.haripriya.haripriya_backend.service;
 
+import com.haripriya.haripriya_backend.dto.CursorPage;
+import com.haripriya.haripriya_backend.dto.PageResult;
+import com.haripriya.haripriya_backend.dto.PatientBatchItemDTO;
+import com.haripriya.haripriya_backend.dto.PatientBulkStatusRequest;
+import com.haripriya.haripriya_backend.dto.PatientBulkStatusResultDTO;
+import com.haripriya.haripriya_backend.dto.PatientFilter;
+import com.haripriya.haripriya_backend.dto.PatientFilterResultDTO;
 import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
 import com.haripriya.haripriya_backend.dto.PatientResponseDTO;
+import com.haripriya.haripriya_backend.dto.PatientSuggestionDTO;
+import com.haripriya.haripriya_backend.dto.PatientSummaryDTO;
 import com.haripriya.haripriya_backend.dto.PatientUpdateDTO;
-import org.springframework.data.domain.Page;
+import com.haripriya.haripriya_backend.enums.CountMode;
+import com.haripriya.haripriya_backend.enums.PatientField;
+import com.haripriya.haripriya_backend.enums.PatientSortField;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface PatientService {
 
     PatientResponseDTO createPatient(PatientRequestDTO requestDTO);
 
-    Page<PatientResponseDTO> getAllPatients(Pageable pageable);
+    PageResult<PatientSummaryDTO> getAllPatients(Pageable pageable, CountMode countMode);
 
-    Page<PatientResponseDTO> getActivePatients(Boolean isActive, Pageable pageable);
+    PageResult<PatientSummaryDTO> getActivePatients(Boolean isActive, Pageable pageable, CountMode countMode);
 
     PatientResponseDTO getPatientById(Long id);
 
@@ -20,9 +36,33 @@ public interface PatientService {
 
     PatientResponseDTO updatePatient(Long id, PatientUpdateDTO updateDTO);
 
+    PatientResponseDTO patchPatient(Long id, long expectedVersion, Map<String, Object> mergePatch);
+
     void deactivatePatient(Long id);
 
-    Page<PatientResponseDTO> searchPatients(String searchTerm, Pageable pageable);
+    PatientBulkStatusResultDTO setActiveInBulk(PatientBulkStatusRequest request, boolean active);
+
+    PageResult<PatientSummaryDTO> searchPatients(String searchTerm, Pageable pageable, CountMode countMode);
+
+    PageResult<PatientSummaryDTO> searchPatients(String searchTerm, Boolean isActive, Pageable pageable,
+            CountMode countMode);
+
+    PatientFilterResultDTO filterPatients(PatientFilter filter, Pageable pageable);
+
+    List<PatientSuggestionDTO> suggestPatients(String query, Boolean isActive, int limit);
+
+    Map<String, Object> getPatientFieldsById(Long id, Set<PatientField> fields);
+
+    Map<String, Object> getPatientFieldsByCode(String patientCode, Set<PatientField> fields);
+
+    List<PatientBatchItemDTO> getPatientsBatch(List<Long> ids, List<String> patientCodes, Set<PatientField> fields);
+
+    PageResult<Map<String, Object>> listPatientFields(Set<PatientField> fields, Boolean isActive, Pageable pageable,
+            CountMode countMode);
+
+    PageResult<Map<String, Object>> searchPatientFields(Set<PatientField> fields, String searchTerm, Boolean isActive,
+            Pageable pageable, CountMode countMode);
 
-    Page<PatientResponseDTO> searchPatients(String searchTerm, Boolean isActive, Pageable pageable);
+    CursorPage<PatientSummaryDTO> scrollPatients(String searchTerm, Boolean isActive, PatientSortField sortField,
+            Sort.Direction direction, String cursor, int size);
 }
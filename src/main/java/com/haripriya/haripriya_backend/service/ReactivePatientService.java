@@ -0,0 +1,15 @@
+package com.haripriya.haripriya_backend.service;
+
+import com.haripriya.haripriya_backend.dto.PatientResponseDTO;
+import com.haripriya.haripriya_backend.dto.PatientSummaryDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactivePatientService {
+
+    Mono<PatientResponseDTO> getPatientById(Long id);
+
+    Mono<PatientResponseDTO> getPatientByCode(String patientCode);
+
+    Flux<PatientSummaryDTO> searchPatients(String searchTerm, Boolean isActive, int page, int size);
+}
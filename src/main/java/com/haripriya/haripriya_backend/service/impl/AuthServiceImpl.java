@@ -5,39 +5,49 @@ import com.haripriya.haripriya_backend.entity.User;
 import com.haripriya.haripriya_backend.enums.AuthProvider;
 import com.haripriya.haripriya_backend.enums.Role;
 import com.haripriya.haripriya_backend.exception.AuthenticationException;
+import com.haripriya.haripriya_backend.exception.ConflictException;
 import com.haripriya.haripriya_backend.exception.ResourceNotFoundException;
 import com.haripriya.haripriya_backend.exception.ValidationException;
 import com.haripriya.haripriya_backend.repository.UserRepository;
 import com.haripriya.haripriya_backend.security.JwtTokenProvider;
+import com.haripriya.haripriya_backend.security.PasswordHashingExecutor;
+import com.haripriya.haripriya_backend.security.TokenPrincipalCache;
+import com.haripriya.haripriya_backend.security.TokenRevocationService;
+import com.haripriya.haripriya_backend.security.UserAccountStateRegistry;
+import com.haripriya.haripriya_backend.security.UserPrincipal;
+import com.haripriya.haripriya_backend.security.VerifiedToken;
 import com.haripriya.haripriya_backend.service.AuthService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
 
+    private static final int ACCOUNT_STATE_ATTEMPTS = 3;
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+    private final TokenPrincipalCache tokenPrincipalCache;
+    private final UserAccountStateRegistry accountStateRegistry;
 
     @Override
-    @Transactional
     public AuthResponse login(LoginRequest loginRequest) {
         logger.info("Login attempt for email: {}", loginRequest.getEmail());
 
-        // Check if user exists
+        // Single lookup outside a transaction, so no connection is held while BCrypt runs
         User user = userRepository.findByEmail(loginRequest.getEmail())
                 .orElseThrow(() -> {
                     logger.error("User not found with email: {}", loginRequest.getEmail());
@@ -45,10 +55,9 @@ public class AuthServiceImpl implements AuthService {
                 });
 
         logger.info("Found user: {}, Role: {}, Active: {}", user.getEmail(), user.getRole(), user.getIsActive());
-        logger.info("Stored password hash: {}", user.getPassword());
 
-        // Check password explicitly for debugging
-        if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
+        // Single BCrypt verify on the bounded hashing pool
+        if (!passwordHashingExecutor.matches(loginRequest.getPassword(), user.getPassword())) {
             logger.error("Password mismatch for user: {}", loginRequest.getEmail());
             throw new AuthenticationException("Invalid email or password");
         }
@@ -65,28 +74,29 @@ public class AuthServiceImpl implements AuthService {
             throw new AuthenticationException("This account uses a different authentication method");
         }
 
-        // Authenticate
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getEmail(),
-                            loginRequest.getPassword()));
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-
-            // Generate JWT token
-            String jwt = tokenProvider.generateToken(authentication);
-
-            // Build response
-            UserResponse userResponse = mapToUserResponse(user);
-
-            logger.info("User logged in successfully: {}", user.getEmail());
-            return new AuthResponse(jwt, userResponse);
-
-        } catch (org.springframework.security.core.AuthenticationException ex) {
-            logger.error("Authentication failed for user: {}", loginRequest.getEmail(), ex);
-            throw new AuthenticationException("Invalid email or password");
-        }
+        UserPrincipal userPrincipal = new UserPrincipal(
+                user.getId(),
+                user.getFullName(),
+                user.getEmail(),
+                null,
+                user.getRole(),
+                user.getIsActive(),
+                user.getAccountVersion());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                userPrincipal,
+                null,
+                userPrincipal.getAuthorities());
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        // Generate JWT token
+        String jwt = tokenProvider.generateToken(authentication);
+
+        // Build response
+        UserResponse userResponse = mapToUserResponse(user);
+
+        logger.info("User logged in successfully: {}", user.getEmail());
+        return new AuthResponse(jwt, userResponse);
     }
 
     @Override
@@ -116,7 +126,7 @@ public class AuthServiceImpl implements AuthService {
                 .fullName(registerRequest.getFullName())
                 .email(registerRequest.getEmail())
                 .phone(registerRequest.getPhone())
-                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .password(passwordHashingExecutor.encode(registerRequest.getPassword()))
                 .role(registerRequest.getRole())
                 .authProvider(AuthProvider.INTERNAL)
                 .isActive(true)
@@ -128,6 +138,29 @@ public class AuthServiceImpl implements AuthService {
         return mapToUserResponse(savedUser);
     }
 
+    @Override
+    public void logout(String token, boolean allSessions) {
+        VerifiedToken verifiedToken = token != null ? tokenProvider.verifyToken(token) : null;
+        if (verifiedToken == null) {
+            throw new AuthenticationException("Invalid or expired token");
+        }
+
+        if (allSessions) {
+            tokenRevocationService.revokeAllForUser(verifiedToken.getUserId());
+            // The epoch only covers earlier seconds, so the presented token may have been issued in this one
+            if (verifiedToken.getJti() != null) {
+                tokenRevocationService.revoke(verifiedToken);
+            }
+            tokenPrincipalCache.invalidateUser(verifiedToken.getUserId());
+        } else {
+            tokenRevocationService.revoke(verifiedToken);
+            tokenPrincipalCache.invalidate(token);
+        }
+
+        SecurityContextHolder.clearContext();
+        logger.info("User logged out: {} (all sessions: {})", verifiedToken.getUserId(), allSessions);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserResponse getCurrentUser(Long userId) {
@@ -135,6 +168,43 @@ public class AuthServiceImpl implements AuthService {
         return mapToUserResponse(user);
     }
 
+    // No surrounding transaction: the update commits before the caches below are told, so a request
+    // that misses the cache right after always reloads the changed row
+    @Override
+    public UserResponse updateAccountState(Long userId, UserAccountUpdateRequest updateRequest) {
+        if (updateRequest.getRole() == null && updateRequest.getIsActive() == null) {
+            throw new ValidationException("Provide role or isActive");
+        }
+        if (updateRequest.getRole() == Role.PATIENT) {
+            throw new ValidationException("Users cannot be given the PATIENT role");
+        }
+
+        // A concurrent change to the same user bumps the version, so the request is applied again to the new row
+        for (int attempt = 0; attempt < ACCOUNT_STATE_ATTEMPTS; attempt++) {
+            User user = getUserById(userId);
+            Role role = updateRequest.getRole() != null ? updateRequest.getRole() : user.getRole();
+            Boolean isActive = updateRequest.getIsActive() != null ? updateRequest.getIsActive() : user.getIsActive();
+            if (role == user.getRole() && isActive.equals(user.getIsActive())) {
+                return mapToUserResponse(user);
+            }
+
+            // Tokens carry the version they were issued at, so every token issued before this change stops working
+            if (userRepository.updateAccountStateIfVersion(userId, user.getAccountVersion(), role, isActive,
+                    LocalDateTime.now()) == 0) {
+                logger.debug("Account state of user {} changed concurrently, reading it again", userId);
+                continue;
+            }
+            User savedUser = getUserById(userId);
+            tokenPrincipalCache.invalidateUser(userId);
+            accountStateRegistry.apply(userId, savedUser.getIsActive(), savedUser.getAccountVersion());
+
+            logger.info("Account state of user {} changed: role {}, active {}, version {}",
+                    userId, savedUser.getRole(), savedUser.getIsActive(), savedUser.getAccountVersion());
+            return mapToUserResponse(savedUser);
+        }
+        throw new ConflictException("User " + userId + " is being changed by someone else, please retry");
+    }
+
     @Override
     @Transactional(readOnly = true)
     public User getUserById(Long userId) {
@@ -0,0 +1,109 @@
+package com.haripriya.haripriya_backend.service.impl;
+
+import com.haripriya.haripriya_backend.repository.PatientCodeCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out patient codes PAT-YYYYMMDD-NNNN from blocks reserved in patient_code_counters
+ * (hi/lo). Each node takes blockSize numbers per round trip and then counts in memory, so
+ * codes are unique across nodes without checking the patients table. Numbers widen past
+ * 9999 on busy days; a block left unused at shutdown or day end is a gap, not a reuse.
+ */
+@Component
+public class PatientCodeAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientCodeAllocator.class);
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final PatientCodeCounterRepository counterRepository;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private LocalDate blockDate;
+    private long next;
+    private long last;
+
+    public PatientCodeAllocator(PatientCodeCounterRepository counterRepository,
+            @Value("${patients.code.block-size:50}") int blockSize) {
+        this.counterRepository = counterRepository;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public String nextCode() {
+        LocalDate today = LocalDate.now();
+        long number;
+        lock.lock();
+        try {
+            if (!today.equals(blockDate) || next > last) {
+                last = reserveBlock(today, blockSize);
+                next = last - blockSize + 1;
+                blockDate = today;
+            }
+            number = next++;
+        } finally {
+            lock.unlock();
+        }
+        return String.format("%s%04d", prefix(today), number);
+    }
+
+    /**
+     * Reserves count consecutive codes in one round trip, for bulk imports. They do not
+     * come from this node's current block.
+     */
+    public String[] nextCodes(int count) {
+        LocalDate today = LocalDate.now();
+        long first = reserveBlock(today, count) - count + 1;
+        String prefix = prefix(today);
+        String[] codes = new String[count];
+        for (int i = 0; i < count; i++) {
+            codes[i] = String.format("%s%04d", prefix, first + i);
+        }
+        return codes;
+    }
+
+    /**
+     * Whether some issued code could start with this complete-looking code, e.g.
+     * PAT-20261018-1234 with PAT-20261018-12345 on a day that went past 9999. Such a term
+     * has to be searched as a prefix, not looked up exactly. Only codes that widened past
+     * four digits can extend another, and those all came from the day's counter.
+     */
+    public boolean canBeExtended(String patientCode) {
+        int dash = patientCode.lastIndexOf('-');
+        String number = patientCode.substring(dash + 1);
+        // Widened numbers never start with a zero, and longer numbers would not fit a long
+        if (number.startsWith("0") || number.length() >= 18) {
+            return false;
+        }
+        LocalDate day;
+        try {
+            day = LocalDate.parse(patientCode.substring(dash - 8, dash), DATE_FORMAT);
+        } catch (DateTimeParseException ex) {
+            return false;
+        }
+        long smallestExtension = Long.parseLong(number) * 10;
+        return counterRepository.findById(day)
+                .map(counter -> counter.getLastValue() >= smallestExtension)
+                .orElse(false);
+    }
+
+    private long reserveBlock(LocalDate day, int size) {
+        long reserved = counterRepository.reserveBlock(day, size)
+                .orElseGet(() -> counterRepository.createCounter(day, prefix(day), size));
+        logger.debug("Reserved patient codes {} to {} for {}", reserved - size + 1, reserved, day);
+        return reserved;
+    }
+
+    private static String prefix(LocalDate day) {
+        return "PAT-" + day.format(DATE_FORMAT) + "-";
+    }
+}
@@ -0,0 +1,355 @@
+package com.haripriya.haripriya_backend.service.impl;
+
+import com.haripriya.haripriya_backend.dto.PatientImportJobDTO;
+import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
+import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.event.PatientChangedEvent;
+import com.haripriya.haripriya_backend.exception.ResourceNotFoundException;
+import com.haripriya.haripriya_backend.exception.ServiceUnavailableException;
+import com.haripriya.haripriya_backend.exception.ValidationException;
+import com.haripriya.haripriya_backend.importer.ImportFormat;
+import com.haripriya.haripriya_backend.importer.PatientImportJob;
+import com.haripriya.haripriya_backend.importer.PatientRow;
+import com.haripriya.haripriya_backend.importer.PatientRowReader;
+import com.haripriya.haripriya_backend.repository.PatientBulkInsertRepository;
+import com.haripriya.haripriya_backend.repository.PatientIndexRow;
+import com.haripriya.haripriya_backend.service.PatientImportService;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk patient import. The upload is spooled to a temp file, then a background thread
+ * reads it row by row, validates each row like POST /api/patients and writes accepted
+ * rows in JDBC batches of batchSize. Memory is bounded by one batch plus the capped error
+ * list, whatever the file size; the file itself is bounded by maxUploadBytes. Job progress
+ * lives on the node that ran the import.
+ */
+@Service
+public class PatientImportServiceImpl implements PatientImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PatientImportServiceImpl.class);
+
+    private static final String EMAIL_CONSTRAINT = "uq_patients_email";
+
+    private final PatientBulkInsertRepository bulkInsertRepository;
+    private final PatientCodeAllocator patientCodeAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final int maxErrors;
+    private final long retentionMinutes;
+    private final long maxUploadBytes;
+    private final Map<String, PatientImportJob> jobs = new ConcurrentHashMap<>();
+
+    public PatientImportServiceImpl(PatientBulkInsertRepository bulkInsertRepository,
+            PatientCodeAllocator patientCodeAllocator,
+            ApplicationEventPublisher eventPublisher,
+            Validator validator,
+            ObjectMapper objectMapper,
+            @Value("${patients.import.threads:1}") int threads,
+            @Value("${patients.import.queue-capacity:4}") int queueCapacity,
+            @Value("${patients.import.batch-size:1000}") int batchSize,
+            @Value("${patients.import.max-errors:1000}") int maxErrors,
+            @Value("${patients.import.retention-minutes:60}") long retentionMinutes,
+            @Value("${patients.import.max-upload-bytes:104857600}") long maxUploadBytes) {
+        this.bulkInsertRepository = bulkInsertRepository;
+        this.patientCodeAllocator = patientCodeAllocator;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxErrors = maxErrors;
+        this.retentionMinutes = retentionMinutes;
+        this.maxUploadBytes = maxUploadBytes;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "patient-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public PatientImportJobDTO startImport(InputStream body, String contentType) {
+        ImportFormat format = ImportFormat.fromContentType(contentType);
+        evictFinishedJobs();
+        // Turn the upload away before spooling it when it could not be queued anyway
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new ServiceUnavailableException("Too many imports are waiting, please retry later", 30);
+        }
+
+        Path file = spool(body, format);
+        PatientImportJob job = new PatientImportJob(format, maxErrors);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, file));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.getId());
+            deleteQuietly(file);
+            throw new ServiceUnavailableException("Too many imports are waiting, please retry later", 30);
+        }
+        logger.info("Queued patient import {} ({})", job.getId(), format.getMediaType());
+        return job.toDTO();
+    }
+
+    @Override
+    public PatientImportJobDTO getImportJob(String jobId) {
+        PatientImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    private void run(PatientImportJob job, Path file) {
+        job.start();
+        try (PatientRowReader reader = job.getFormat().open(
+                Files.newBufferedReader(file, StandardCharsets.UTF_8), this::parseJson)) {
+            List<PatientRow> batch = new ArrayList<>(batchSize);
+            PatientRow row;
+            while ((row = reader.next()) != null) {
+                job.rowRead();
+                String error = row.getError() != null ? row.getError() : validate(row.getPatient());
+                if (error != null) {
+                    job.reject(row.getNumber(), error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    write(job, batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(job, batch);
+            }
+            job.complete();
+            logger.info("Patient import {} finished, {} rows imported", job.getId(), job.getImported());
+        } catch (IOException | RuntimeException ex) {
+            // Batches written before the failure stay committed
+            logger.error("Patient import {} failed", job.getId(), ex);
+            job.fail(ex.getMessage());
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private void write(PatientImportJob job, List<PatientRow> batch) {
+        try {
+            insert(job, batch);
+        } catch (DataIntegrityViolationException ex) {
+            if (!violates(ex, EMAIL_CONSTRAINT)) {
+                throw ex;
+            }
+            // Another writer took one of the emails after the check and the batch rolled back, so check again
+            logger.debug("Patient import {} lost an email to a concurrent insert, retrying the batch", job.getId());
+            insert(job, batch);
+        }
+    }
+
+    /**
+     * Leaves out rows whose email is taken, inserts the rest and then records the rows
+     * skipped for their phone number. A row repeating the email of an earlier row in the
+     * batch waits for the next round, as only then is it known whether that row went in.
+     */
+    private void insert(PatientImportJob job, List<PatientRow> batch) {
+        Set<String> takenEmails = bulkInsertRepository.findExistingEmails(batch.stream()
+                .map(row -> emptyToNull(row.getPatient().getEmail()))
+                .filter(Objects::nonNull)
+                .toList());
+        Set<String> batchEmails = new HashSet<>();
+        String[] errors = new String[batch.size()];
+        List<PatientRow> repeats = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>(batch.size());
+        List<PatientRow> accepted = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PatientRow row = batch.get(i);
+            String email = emptyToNull(row.getPatient().getEmail());
+            if (email != null && takenEmails.contains(email)) {
+                errors[i] = "Email already exists";
+            } else if (email != null && !batchEmails.add(email)) {
+                repeats.add(row);
+            } else {
+                positions.add(i);
+                accepted.add(row);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            String[] codes = patientCodeAllocator.nextCodes(accepted.size());
+            long[] ids = bulkInsertRepository.allocateIds(accepted.size());
+            LocalDateTime now = LocalDateTime.now();
+            List<Patient> patients = new ArrayList<>(accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                patients.add(toPatient(ids[i], codes[i], accepted.get(i).getPatient(), now));
+            }
+
+            int[] counts = bulkInsertRepository.insertAll(patients, now);
+            int inserted = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    errors[positions.get(i)] = "Phone number already exists";
+                } else {
+                    inserted++;
+                    // The batch has committed, so the search index and counts add the row right away
+                    eventPublisher.publishEvent(new PatientChangedEvent(PatientIndexRow.of(patients.get(i)), null));
+                }
+            }
+            job.imported(inserted);
+        }
+
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                job.reject(batch.get(i).getNumber(), errors[i]);
+            }
+        }
+        if (!repeats.isEmpty()) {
+            write(job, repeats);
+        }
+    }
+
+    private static boolean violates(DataIntegrityViolationException ex, String constraint) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String validate(PatientRequestDTO patient) {
+        Set<ConstraintViolation<PatientRequestDTO>> violations = validator.validate(patient);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining("; "));
+    }
+
+    private PatientRequestDTO parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, PatientRequestDTO.class);
+        } catch (JacksonException ex) {
+            throw new ValidationException("Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static Patient toPatient(long id, String patientCode, PatientRequestDTO row, LocalDateTime now) {
+        return Patient.builder()
+                .id(id)
+                .patientCode(patientCode)
+                .fullName(row.getFullName())
+                .gender(row.getGender())
+                .dateOfBirth(row.getDateOfBirth())
+                .phoneNumber(row.getPhoneNumber())
+                .email(emptyToNull(row.getEmail()))
+                .address(row.getAddress())
+                .bloodGroup(row.getBloodGroup())
+                .chronicDiseases(row.getChronicDiseases())
+                .allergies(row.getAllergies())
+                .emergencyContactName(row.getEmergencyContactName())
+                .emergencyContactPhone(row.getEmergencyContactPhone())
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    // A blank email is stored as null, so it never collides in the unique email index
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private Path spool(InputStream body, ImportFormat format) {
+        Path file = null;
+        boolean spooled = false;
+        try {
+            file = Files.createTempFile("patient-import-", "." + format.name().toLowerCase(Locale.ROOT));
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[8192];
+                long total = 0;
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    total += read;
+                    if (total > maxUploadBytes) {
+                        throw new ValidationException("Upload is larger than " + maxUploadBytes + " bytes");
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            spooled = true;
+            return file;
+        } catch (IOException ex) {
+            throw new ValidationException("Could not read the upload: " + ex.getMessage(), ex);
+        } finally {
+            if (!spooled) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.warn("Could not delete import file {}", file, ex);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,56 +1,131 @@
 package com.haripriya.haripriya_backend.service.impl;
 
+import com.haripriya.haripriya_backend.dto.CursorPage;
+import com.haripriya.haripriya_backend.dto.PageResult;
+import com.haripriya.haripriya_backend.dto.PatientBatchItemDTO;
+import com.haripriya.haripriya_backend.dto.PatientBulkStatusRequest;
+import com.haripriya.haripriya_backend.dto.PatientBulkStatusResultDTO;
+import com.haripriya.haripriya_backend.dto.PatientCursor;
+import com.haripriya.haripriya_backend.dto.PatientFilter;
+import com.haripriya.haripriya_backend.dto.PatientFilterResultDTO;
 import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
 import com.haripriya.haripriya_backend.dto.PatientResponseDTO;
+import com.haripriya.haripriya_backend.dto.PatientSuggestionDTO;
+import com.haripriya.haripriya_backend.dto.PatientSummaryDTO;
 import com.haripriya.haripriya_backend.dto.PatientUpdateDTO;
 import com.haripriya.haripriya_backend.entity.Patient;
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.CountMode;
+import com.haripriya.haripriya_backend.enums.Gender;
+import com.haripriya.haripriya_backend.enums.PatientField;
+import com.haripriya.haripriya_backend.enums.PatientSortField;
+import com.haripriya.haripriya_backend.event.PatientChangedEvent;
+import com.haripriya.haripriya_backend.exception.ConflictException;
 import com.haripriya.haripriya_backend.exception.ResourceNotFoundException;
 import com.haripriya.haripriya_backend.exception.ValidationException;
+import com.haripriya.haripriya_backend.repository.PatientIdState;
+import com.haripriya.haripriya_backend.repository.PatientIndexRow;
+import com.haripriya.haripriya_backend.repository.PatientPatchRepository;
 import com.haripriya.haripriya_backend.repository.PatientRepository;
+import com.haripriya.haripriya_backend.repository.PatientSpecifications;
+import com.haripriya.haripriya_backend.search.NamePrefixIndex;
+import com.haripriya.haripriya_backend.search.PatientFacetIndex;
+import com.haripriya.haripriya_backend.search.PatientCountRegistry;
+import com.haripriya.haripriya_backend.search.PatientSearchIndex;
+import com.haripriya.haripriya_backend.search.SearchTermClassifier;
 import com.haripriya.haripriya_backend.service.PatientService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Random;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PatientServiceImpl implements PatientService {
 
     private static final Logger logger = LoggerFactory.getLogger(PatientServiceImpl.class);
+
+    // Unique indexes from create-schema.sql
+    private static final String PHONE_NUMBER_CONSTRAINT = "uq_patients_phone_number";
+    private static final String EMAIL_CONSTRAINT = "uq_patients_email";
+
+    // Fields PATCH may set, by JSON key; the first four are NOT NULL columns
+    private static final Set<PatientField> REQUIRED_FIELDS = EnumSet.of(PatientField.FULL_NAME,
+            PatientField.GENDER, PatientField.DATE_OF_BIRTH, PatientField.PHONE_NUMBER);
+    private static final Map<String, PatientField> PATCHABLE_FIELDS = EnumSet.of(PatientField.FULL_NAME,
+                    PatientField.GENDER, PatientField.DATE_OF_BIRTH, PatientField.PHONE_NUMBER, PatientField.EMAIL,
+                    PatientField.ADDRESS, PatientField.BLOOD_GROUP, PatientField.CHRONIC_DISEASES,
+                    PatientField.ALLERGIES, PatientField.EMERGENCY_CONTACT_NAME, PatientField.EMERGENCY_CONTACT_PHONE)
+            .stream()
+            .collect(Collectors.toMap(PatientField::getKey, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+
     private final PatientRepository patientRepository;
+    private final PatientSearchIndex patientSearchIndex;
+    private final PatientCountRegistry patientCountRegistry;
+    private final PatientCodeAllocator patientCodeAllocator;
+    private final PatientPatchRepository patientPatchRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Above this many index matches a non-id sort is left to the database query
+    @Value("${patients.search-index.max-sorted-candidates:1000}")
+    private int maxSortedCandidates;
+
+    // Batch lookups are split into IN lists of at most this many values
+    @Value("${patients.batch.chunk-size:200}")
+    private int batchChunkSize;
 
+    // Bulk status changes update at most this many rows per statement and transaction
+    @Value("${patients.bulk-status.chunk-size:500}")
+    private int bulkStatusChunkSize;
+
+    // No surrounding transaction: the INSERT commits on its own, and a patient code block reservation
+    // never waits for a second pooled connection while this request holds one
     @Override
-    @Transactional
     public PatientResponseDTO createPatient(PatientRequestDTO requestDTO) {
         logger.info("Creating new patient: {}", requestDTO.getFullName());
 
-        // Validate unique phone number
-        if (patientRepository.existsByPhoneNumber(requestDTO.getPhoneNumber())) {
-            throw new ValidationException("Phone number already exists");
-        }
-
-        // Validate unique email if provided
-        if (requestDTO.getEmail() != null && !requestDTO.getEmail().isEmpty()) {
-            if (patientRepository.existsByEmail(requestDTO.getEmail())) {
-                throw new ValidationException("Email already exists");
-            }
-        }
-
         // Validate date of birth is not in future
         if (requestDTO.getDateOfBirth().isAfter(LocalDate.now())) {
             throw new ValidationException("Date of birth cannot be in the future");
         }
 
-        // Generate unique patient code
-        String patientCode = generatePatientCode();
+        String patientCode = patientCodeAllocator.nextCode();
 
         // Build patient entity
         Patient patient = Patient.builder()
@@ -59,7 +134,7 @@ public class PatientServiceImpl implements PatientService {
                 .gender(requestDTO.getGender())
                 .dateOfBirth(requestDTO.getDateOfBirth())
                 .phoneNumber(requestDTO.getPhoneNumber())
-                .email(requestDTO.getEmail())
+                .email(emptyToNull(requestDTO.getEmail()))
                 .address(requestDTO.getAddress())
                 .bloodGroup(requestDTO.getBloodGroup())
                 .chronicDiseases(requestDTO.getChronicDiseases())
@@ -69,7 +144,14 @@ public class PatientServiceImpl implements PatientService {
                 .isActive(true)
                 .build();
 
-        Patient savedPatient = patientRepository.save(patient);
+        // Duplicate phone numbers and emails are rejected by the unique indexes, not by lookups first
+        Patient savedPatient;
+        try {
+            savedPatient = patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateValueException(ex);
+        }
+        eventPublisher.publishEvent(new PatientChangedEvent(PatientIndexRow.of(savedPatient), null));
         logger.info("Patient created successfully with code: {}", patientCode);
 
         return mapToResponseDTO(savedPatient);
@@ -77,18 +159,25 @@ public class PatientServiceImpl implements PatientService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PatientResponseDTO> getAllPatients(Pageable pageable) {
+    public PageResult<PatientSummaryDTO> getAllPatients(Pageable pageable, CountMode countMode) {
         logger.info("Fetching all patients with pagination");
-        return patientRepository.findAll(pageable)
-                .map(this::mapToResponseDTO);
+        if (countMode == CountMode.EXACT) {
+            return PageResult.exact(patientRepository.findSummaries(pageable));
+        }
+        return PageResult.estimated(patientRepository.findSummariesSlice(pageable),
+                countMode == CountMode.ESTIMATE ? patientCountRegistry.estimate(null) : null);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PatientResponseDTO> getActivePatients(Boolean isActive, Pageable pageable) {
+    public PageResult<PatientSummaryDTO> getActivePatients(Boolean isActive, Pageable pageable,
+            CountMode countMode) {
         logger.info("Fetching patients with active status: {}", isActive);
-        return patientRepository.findByIsActive(isActive, pageable)
-                .map(this::mapToResponseDTO);
+        if (countMode == CountMode.EXACT) {
+            return PageResult.exact(patientRepository.findSummariesByIsActive(isActive, pageable));
+        }
+        return PageResult.estimated(patientRepository.findSummariesSliceByIsActive(isActive, pageable),
+                countMode == CountMode.ESTIMATE ? patientCountRegistry.estimate(isActive) : null);
     }
 
     @Override
@@ -130,23 +219,12 @@ public class PatientServiceImpl implements PatientService {
             }
             patient.setDateOfBirth(updateDTO.getDateOfBirth());
         }
+        // Uniqueness of a changed phone number or email is checked by the flush below
         if (updateDTO.getPhoneNumber() != null) {
-            // Check if phone number is being changed and if new number already exists
-            if (!patient.getPhoneNumber().equals(updateDTO.getPhoneNumber())) {
-                if (patientRepository.existsByPhoneNumber(updateDTO.getPhoneNumber())) {
-                    throw new ValidationException("Phone number already exists");
-                }
-            }
             patient.setPhoneNumber(updateDTO.getPhoneNumber());
         }
         if (updateDTO.getEmail() != null) {
-            // Check if email is being changed and if new email already exists
-            if (!updateDTO.getEmail().equals(patient.getEmail())) {
-                if (patientRepository.existsByEmail(updateDTO.getEmail())) {
-                    throw new ValidationException("Email already exists");
-                }
-            }
-            patient.setEmail(updateDTO.getEmail());
+            patient.setEmail(emptyToNull(updateDTO.getEmail()));
         }
         if (updateDTO.getAddress() != null) {
             patient.setAddress(updateDTO.getAddress());
@@ -167,12 +245,46 @@ public class PatientServiceImpl implements PatientService {
             patient.setEmergencyContactPhone(updateDTO.getEmergencyContactPhone());
         }
 
-        Patient updatedPatient = patientRepository.save(patient);
+        Patient updatedPatient;
+        try {
+            updatedPatient = patientRepository.saveAndFlush(patient);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateValueException(ex);
+        }
+        eventPublisher.publishEvent(new PatientChangedEvent(PatientIndexRow.of(updatedPatient),
+                updatedPatient.getIsActive()));
         logger.info("Patient updated successfully: {}", id);
 
         return mapToResponseDTO(updatedPatient);
     }
 
+    // No surrounding transaction: the conditional UPDATE ... RETURNING is the whole operation
+    @Override
+    public PatientResponseDTO patchPatient(Long id, long expectedVersion, Map<String, Object> mergePatch) {
+        logger.info("Patching patient with ID: {} at version {}", id, expectedVersion);
+        Map<PatientField, Object> changes = mergePatchChanges(mergePatch);
+
+        Patient patched;
+        try {
+            patched = patientPatchRepository.updateIfVersion(id, expectedVersion, changes).orElse(null);
+        } catch (DataIntegrityViolationException ex) {
+            throw duplicateValueException(ex);
+        }
+        if (patched == null) {
+            // Only a failed patch pays for the second query that tells the two cases apart
+            if (!patientRepository.existsById(id)) {
+                throw new ResourceNotFoundException("Patient not found with ID: " + id);
+            }
+            throw new ConflictException("Patient " + id + " was changed by someone else since version "
+                    + expectedVersion + ", reload it and apply the change again");
+        }
+
+        // A patch cannot change the active flag
+        eventPublisher.publishEvent(new PatientChangedEvent(PatientIndexRow.of(patched), patched.getIsActive()));
+        logger.info("Patient patched successfully: {} now at version {}", id, patched.getVersion());
+        return mapToResponseDTO(patched);
+    }
+
     @Override
     @Transactional
     public void deactivatePatient(Long id) {
@@ -181,62 +293,541 @@ public class PatientServiceImpl implements PatientService {
         Patient patient = patientRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + id));
 
+        Boolean wasActive = patient.getIsActive();
         patient.setIsActive(false);
         patientRepository.save(patient);
+        eventPublisher.publishEvent(new PatientChangedEvent(PatientIndexRow.of(patient), wasActive));
 
         logger.info("Patient deactivated successfully: {}", id);
     }
 
+    // No surrounding transaction: each chunk is one UPDATE that commits on its own, so locks are held
+    // for one chunk at a time and a failure keeps the chunks already done
+    @Override
+    public PatientBulkStatusResultDTO setActiveInBulk(PatientBulkStatusRequest request, boolean active) {
+        int chunkSize = Math.max(1, bulkStatusChunkSize);
+        long updated = 0;
+        int statements = 0;
+        Long unchanged = null;
+
+        if (request.getIds() != null) {
+            List<Long> ids = request.getIds().stream().distinct().toList();
+            logger.info("Setting isActive={} on {} patients by id", active, ids.size());
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<PatientIndexRow> changed = patientPatchRepository.setActiveByIds(
+                        ids.subList(from, Math.min(from + chunkSize, ids.size())), active);
+                publishStatusChanges(changed, active);
+                updated += changed.size();
+                statements++;
+            }
+            unchanged = ids.size() - updated;
+        } else {
+            LocalDateTime cutoff = request.getNotUpdatedSince().atStartOfDay();
+            logger.info("Setting isActive={} on patients not updated since {}", active, cutoff);
+            List<PatientIndexRow> changed;
+            do {
+                changed = patientPatchRepository.setActiveWhereNotUpdatedSince(cutoff, active, chunkSize);
+                publishStatusChanges(changed, active);
+                updated += changed.size();
+                statements++;
+            } while (changed.size() == chunkSize);
+        }
+
+        logger.info("Set isActive={} on {} patients in {} statements", active, updated, statements);
+        return PatientBulkStatusResultDTO.builder()
+                .isActive(active)
+                .updated(updated)
+                .unchanged(unchanged)
+                .statements(statements)
+                .build();
+    }
+
+    // Every returned row flipped status, so the search index and counts move it between buckets
+    // one row at a time instead of being rebuilt
+    private void publishStatusChanges(List<PatientIndexRow> changed, boolean active) {
+        for (PatientIndexRow row : changed) {
+            eventPublisher.publishEvent(new PatientChangedEvent(row, !active));
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
-    public Page<PatientResponseDTO> searchPatients(String searchTerm, Pageable pageable) {
+    public PageResult<PatientSummaryDTO> searchPatients(String searchTerm, Pageable pageable, CountMode countMode) {
         logger.info("Searching patients with term: {}", searchTerm);
-        return patientRepository.searchPatients(searchTerm, pageable)
-                .map(this::mapToResponseDTO);
+        return search(searchTerm, null, pageable, countMode);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PatientResponseDTO> searchPatients(String searchTerm, Boolean isActive, Pageable pageable) {
+    public PageResult<PatientSummaryDTO> searchPatients(String searchTerm, Boolean isActive, Pageable pageable,
+            CountMode countMode) {
         logger.info("Searching patients with term: {} and active status: {}", searchTerm, isActive);
-        return patientRepository.searchActivePatients(searchTerm, isActive, pageable)
-                .map(this::mapToResponseDTO);
+        return search(searchTerm, isActive, pageable, countMode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPatientFieldsById(Long id, Set<PatientField> fields) {
+        logger.info("Fetching fields {} of patient ID: {}", fields, id);
+        return patientRepository.findFields(fields, PatientSpecifications.idIn(List.of(id)), Sort.unsorted(), 0, 1)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with ID: " + id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPatientFieldsByCode(String patientCode, Set<PatientField> fields) {
+        logger.info("Fetching fields {} of patient code: {}", fields, patientCode);
+        return patientRepository.findFields(fields, PatientSpecifications.hasPatientCode(patientCode),
+                        Sort.unsorted(), 0, 1)
+                .stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found with code: " + patientCode));
     }
 
-    private String generatePatientCode() {
-        // Generate patient code in format: PAT-YYYYMMDD-XXXX
-        String datePart = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomPart = String.format("%04d", new Random().nextInt(10000));
-        String patientCode = "PAT-" + datePart + "-" + randomPart;
+    @Override
+    @Transactional(readOnly = true)
+    public List<PatientBatchItemDTO> getPatientsBatch(List<Long> ids, List<String> patientCodes,
+            Set<PatientField> fields) {
+        logger.info("Fetching a batch of {} ids and {} codes", ids.size(), patientCodes.size());
+
+        // Rows are matched back to the request by id and code, so both are always selected
+        Set<PatientField> selected = EnumSet.of(PatientField.ID, PatientField.PATIENT_CODE);
+        selected.addAll(fields);
+
+        Map<Long, Map<String, Object>> byId = new HashMap<>();
+        for (List<Long> chunk : chunks(ids.stream().distinct().toList())) {
+            patientRepository.findFields(selected, PatientSpecifications.idIn(chunk), Sort.unsorted(), 0, chunk.size())
+                    .forEach(row -> byId.put((Long) row.get(PatientField.ID.getKey()), row));
+        }
+        Map<String, Map<String, Object>> byCode = new HashMap<>();
+        for (List<String> chunk : chunks(patientCodes.stream().distinct().toList())) {
+            patientRepository.findFields(selected, PatientSpecifications.patientCodeIn(chunk), Sort.unsorted(), 0,
+                            chunk.size())
+                    .forEach(row -> byCode.put((String) row.get(PatientField.PATIENT_CODE.getKey()), row));
+        }
 
-        // Ensure uniqueness
-        while (patientRepository.findByPatientCode(patientCode).isPresent()) {
-            randomPart = String.format("%04d", new Random().nextInt(10000));
-            patientCode = "PAT-" + datePart + "-" + randomPart;
+        List<PatientBatchItemDTO> results = new ArrayList<>(ids.size() + patientCodes.size());
+        for (Long id : ids) {
+            Map<String, Object> row = byId.get(id);
+            results.add(PatientBatchItemDTO.builder().id(id).found(row != null).patient(row).build());
         }
+        for (String patientCode : patientCodes) {
+            Map<String, Object> row = byCode.get(patientCode);
+            results.add(PatientBatchItemDTO.builder().patientCode(patientCode).found(row != null).patient(row).build());
+        }
+        return results;
+    }
 
-        return patientCode;
+    @Override
+    @Transactional(readOnly = true)
+    public PageResult<Map<String, Object>> listPatientFields(Set<PatientField> fields, Boolean isActive,
+            Pageable pageable, CountMode countMode) {
+        logger.info("Fetching fields {} of patients with active status: {}", fields, isActive);
+        return fieldPage(fields, PatientSpecifications.hasActiveStatus(isActive), pageable, countMode,
+                patientCountRegistry.estimate(isActive));
     }
 
-    private PatientResponseDTO mapToResponseDTO(Patient patient) {
-        return PatientResponseDTO.builder()
-                .id(patient.getId())
-                .patientCode(patient.getPatientCode())
-                .fullName(patient.getFullName())
-                .gender(patient.getGender())
-                .dateOfBirth(patient.getDateOfBirth())
-                .age(patient.getAge())
-                .phoneNumber(patient.getPhoneNumber())
-                .email(patient.getEmail())
-                .address(patient.getAddress())
-                .bloodGroup(patient.getBloodGroup())
-                .chronicDiseases(patient.getChronicDiseases())
-                .allergies(patient.getAllergies())
-                .emergencyContactName(patient.getEmergencyContactName())
-                .emergencyContactPhone(patient.getEmergencyContactPhone())
-                .isActive(patient.getIsActive())
-                .createdAt(patient.getCreatedAt())
-                .updatedAt(patient.getUpdatedAt())
+    @Override
+    @Transactional(readOnly = true)
+    public PageResult<Map<String, Object>> searchPatientFields(Set<PatientField> fields, String searchTerm,
+            Boolean isActive, Pageable pageable, CountMode countMode) {
+        logger.info("Searching fields {} of patients with term: {} and active status: {}", fields, searchTerm,
+                isActive);
+        long[] matches = findMatchingIds(searchTerm, isActive);
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+        boolean idSorted = sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1);
+        if (matches == null || (!idSorted && matches.length > maxSortedCandidates)) {
+            Specification<Patient> specification = PatientSpecifications.hasActiveStatus(isActive)
+                    .and(PatientSpecifications.matchesSearchTerm(searchTerm));
+            return fieldPage(fields, specification, pageable, countMode, null);
+        }
+
+        List<Map<String, Object>> content;
+        if (idSorted) {
+            boolean descending = idOrder == null || idOrder.isDescending();
+            List<Long> pageIds = pageOfIds(matches, pageable, descending);
+            content = pageIds.isEmpty() ? List.of()
+                    : patientRepository.findFields(fields, PatientSpecifications.idIn(pageIds),
+                            Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, "id"), 0, pageIds.size());
+        } else {
+            content = matches.length == 0 ? List.of()
+                    : patientRepository.findFields(fields,
+                            PatientSpecifications.idIn(Arrays.stream(matches).boxed().toList()),
+                            sort, pageable.getOffset(), pageable.getPageSize());
+        }
+        return PageResult.exact(new PageImpl<>(content, pageable, matches.length));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PatientSummaryDTO> scrollPatients(String searchTerm, Boolean isActive,
+            PatientSortField sortField, Sort.Direction direction, String cursor, int size) {
+        logger.info("Scrolling patients with term: {} and active status: {}", searchTerm, isActive);
+
+        // A continuation keeps the order it was issued for
+        PatientCursor position = cursor != null && !cursor.isBlank() ? PatientCursor.decode(cursor) : null;
+        PatientSortField field = position != null ? position.getSortField() : sortField;
+        Sort.Direction order = position != null ? position.getDirection() : direction;
+
+        Specification<Patient> specification = PatientSpecifications.hasActiveStatus(isActive);
+        if (searchTerm != null && !searchTerm.isBlank()) {
+            long[] matches = findMatchingIds(searchTerm, isActive);
+            if (matches != null && matches.length == 0) {
+                return CursorPage.<PatientSummaryDTO>builder().content(List.of()).size(0).build();
+            }
+            specification = specification.and(matches != null && matches.length <= maxSortedCandidates
+                    ? PatientSpecifications.idIn(Arrays.stream(matches).boxed().toList())
+                    : PatientSpecifications.matchesSearchTerm(searchTerm));
+        }
+        if (position != null) {
+            specification = specification.and(PatientSpecifications.seekAfter(
+                    field, order, field.parseKey(position.getSortKey()), position.getId()));
+        }
+
+        // One extra row tells whether another page exists without a count query. The entities
+        // come back without their lazy address and medical history columns.
+        Sort sort = field.toSort(order);
+        List<Patient> rows = patientRepository.findBy(specification,
+                query -> query.sortBy(sort).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<Patient> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Patient last = content.get(content.size() - 1);
+            nextCursor = new PatientCursor(field, order, field.keyOf(last), last.getId()).encode();
+        }
+        return CursorPage.<PatientSummaryDTO>builder()
+                .content(content.stream().map(PatientSummaryDTO::from).toList())
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
                 .build();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PatientFilterResultDTO filterPatients(PatientFilter filter, Pageable pageable) {
+        logger.info("Filtering patients: {}", filter);
+        PatientFacetIndex.Result result = patientSearchIndex.filter(filter);
+        if (result == null) {
+            return filterFromDatabase(filter, pageable);
+        }
+
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+        List<PatientSummaryDTO> content;
+        if (sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1)) {
+            boolean descending = idOrder == null || idOrder.isDescending();
+            content = fetchSummariesInOrder(result.pageIds(pageable.getOffset(), pageable.getPageSize(), descending));
+        } else if (result.getTotal() <= maxSortedCandidates) {
+            content = result.getTotal() == 0 ? List.of()
+                    : patientRepository.findSummariesByIdIn(result.allIds(), pageable);
+        } else {
+            // Too many matches for an id list; the database orders the page, the index keeps the counts
+            content = patientRepository.findBy(PatientSpecifications.matchesFilter(filter, LocalDate.now()),
+                            query -> query.page(pageable))
+                    .map(PatientSummaryDTO::from)
+                    .getContent();
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("gender", facetCounts(result.getGenderCounts()));
+        facets.put("bloodGroup", facetCounts(result.getBloodGroupCounts()));
+        facets.put("isActive", facetCounts(result.getActiveCounts()));
+        return PatientFilterResultDTO.builder()
+                .patients(PageResult.exact(new PageImpl<>(content, pageable, result.getTotal())))
+                .facets(facets)
+                .build();
+    }
+
+    @Override
+    public List<PatientSuggestionDTO> suggestPatients(String query, Boolean isActive, int limit) {
+        List<NamePrefixIndex.Entry> entries = patientSearchIndex.suggest(query, isActive, limit);
+        if (entries != null) {
+            return entries.stream()
+                    .map(entry -> PatientSuggestionDTO.builder()
+                            .id(entry.getId())
+                            .patientCode(entry.getPatientCode())
+                            .fullName(entry.getFullName())
+                            .age(entry.getDateOfBirth() == null ? null
+                                    : Period.between(entry.getDateOfBirth(), LocalDate.now()).getYears())
+                            .build())
+                    .toList();
+        }
+
+        // Index still loading: answer from the database so typeahead keeps working
+        logger.debug("Suggest index not ready, using the database search for: {}", query);
+        Pageable pageable = PageRequest.of(0, limit, Sort.by("fullName"));
+        Slice<PatientSummaryDTO> patients = isActive != null
+                ? patientRepository.searchActivePatientsSlice(query, isActive, pageable)
+                : patientRepository.searchPatientsSlice(query, pageable);
+        return patients.stream()
+                .map(patient -> PatientSuggestionDTO.builder()
+                        .id(patient.getId())
+                        .patientCode(patient.getPatientCode())
+                        .fullName(patient.getFullName())
+                        .age(patient.getAge())
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Codes, emails and full phone numbers go to indexed exact or prefix lookups; other
+     * terms are answered by the in-memory index when it can. Either way only the rows of
+     * the requested page are fetched by id, and the total is exact for free. Falls back
+     * to the LIKE query otherwise.
+     */
+    private PageResult<PatientSummaryDTO> search(String searchTerm, Boolean isActive, Pageable pageable,
+            CountMode countMode) {
+        long[] matches = findMatchingIds(searchTerm, isActive);
+        if (matches == null) {
+            return databaseSearch(searchTerm, isActive, pageable, countMode);
+        }
+
+        Sort sort = pageable.getSort();
+        Sort.Order idOrder = sort.getOrderFor("id");
+        List<PatientSummaryDTO> content;
+        if (sort.isUnsorted() || (idOrder != null && sort.stream().count() == 1)) {
+            content = fetchInIdOrder(matches, pageable, idOrder == null || idOrder.isDescending());
+        } else if (matches.length <= maxSortedCandidates) {
+            content = matches.length == 0 ? List.of()
+                    : patientRepository.findSummariesByIdIn(Arrays.stream(matches).boxed().toList(), pageable);
+        } else {
+            logger.debug("{} matches for a non-id sort, using the database search", matches.length);
+            return databaseSearch(searchTerm, isActive, pageable, countMode);
+        }
+
+        return PageResult.exact(new PageImpl<>(content, pageable, matches.length));
+    }
+
+    // No cheap estimate exists for a LIKE search, so anything but an exact count skips the total
+    private PageResult<PatientSummaryDTO> databaseSearch(String searchTerm, Boolean isActive, Pageable pageable,
+            CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return PageResult.exact(isActive == null
+                    ? patientRepository.searchPatients(searchTerm, pageable)
+                    : patientRepository.searchActivePatients(searchTerm, isActive, pageable));
+        }
+        return PageResult.estimated(isActive == null
+                ? patientRepository.searchPatientsSlice(searchTerm, pageable)
+                : patientRepository.searchActivePatientsSlice(searchTerm, isActive, pageable), null);
+    }
+
+    // Index not loaded: the same answer from a paged spec query and one GROUP BY per facet
+    private PatientFilterResultDTO filterFromDatabase(PatientFilter filter, Pageable pageable) {
+        LocalDate today = LocalDate.now();
+        Page<PatientSummaryDTO> page = patientRepository.findBy(PatientSpecifications.matchesFilter(filter, today),
+                        query -> query.page(pageable))
+                .map(PatientSummaryDTO::from);
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("gender", facetCounts(Gender.values(), patientRepository.countGroupedBy("gender",
+                PatientSpecifications.matchesFilter(filter.toBuilder().genders(null).build(), today))));
+        facets.put("bloodGroup", facetCounts(BloodGroup.values(), patientRepository.countGroupedBy("bloodGroup",
+                PatientSpecifications.matchesFilter(filter.toBuilder().bloodGroups(null).build(), today))));
+        facets.put("isActive", facetCounts(new Boolean[] {true, false}, patientRepository.countGroupedBy("isActive",
+                PatientSpecifications.matchesFilter(filter.toBuilder().isActive(null).build(), today))));
+        return PatientFilterResultDTO.builder()
+                .patients(PageResult.exact(page))
+                .facets(facets)
+                .build();
+    }
+
+    private static Map<String, Long> facetCounts(Map<?, Long> counts) {
+        Map<String, Long> facet = new LinkedHashMap<>();
+        counts.forEach((value, count) -> facet.put(String.valueOf(value), count));
+        return facet;
+    }
+
+    // Every value is listed, with zero for those the GROUP BY did not return
+    private static Map<String, Long> facetCounts(Object[] values, Map<Object, Long> counts) {
+        Map<String, Long> facet = new LinkedHashMap<>();
+        for (Object value : values) {
+            facet.put(String.valueOf(value), counts.getOrDefault(value, 0L));
+        }
+        return facet;
+    }
+
+    // One extra row gives hasNext; the COUNT(*) only runs for count=exact when the page cannot answer it
+    private PageResult<Map<String, Object>> fieldPage(Set<PatientField> fields, Specification<Patient> specification,
+            Pageable pageable, CountMode countMode, Long estimate) {
+        List<Map<String, Object>> rows = patientRepository.findFields(fields, specification, pageable.getSort(),
+                pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<Map<String, Object>> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        if (countMode == CountMode.EXACT) {
+            return PageResult.exact(PageableExecutionUtils.getPage(content, pageable,
+                    () -> patientRepository.count(specification)));
+        }
+        return PageResult.estimated(new SliceImpl<>(content, pageable, hasNext),
+                countMode == CountMode.ESTIMATE ? estimate : null);
+    }
+
+    /**
+     * Ascending ids of all matching patients from an indexed lookup or the in-memory
+     * index, or null when only the LIKE query can answer.
+     */
+    private long[] findMatchingIds(String searchTerm, Boolean isActive) {
+        switch (SearchTermClassifier.classify(searchTerm)) {
+            case PATIENT_CODE:
+                String patientCode = searchTerm.trim().toUpperCase(Locale.ROOT);
+                // The substring search also finds the longer codes this one is the start of
+                if (patientCodeAllocator.canBeExtended(patientCode)) {
+                    return patientSearchIndex.search(searchTerm, isActive);
+                }
+                return idsOf(patientRepository.findIdStatesByPatientCode(patientCode), isActive);
+            case EMAIL:
+                return idsOf(patientRepository.findIdStatesByEmail(searchTerm.trim()), isActive);
+            case PHONE:
+                return idsOf(patientRepository.findIdStatesByPhoneDigits(
+                        SearchTermClassifier.digitsOf(searchTerm)), isActive);
+            default:
+                return patientSearchIndex.search(searchTerm, isActive);
+        }
+    }
+
+    private static long[] idsOf(List<PatientIdState> states, Boolean isActive) {
+        return states.stream()
+                .filter(state -> isActive == null || isActive.equals(state.getIsActive()))
+                .mapToLong(PatientIdState::getId)
+                .sorted()
+                .toArray();
+    }
+
+    private <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += batchChunkSize) {
+            chunks.add(values.subList(from, Math.min(from + batchChunkSize, values.size())));
+        }
+        return chunks;
+    }
+
+    private static List<Long> pageOfIds(long[] ascendingIds, Pageable pageable, boolean descending) {
+        int from = (int) Math.min(pageable.getOffset(), ascendingIds.length);
+        int to = Math.min(from + pageable.getPageSize(), ascendingIds.length);
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(descending ? ascendingIds[ascendingIds.length - 1 - i] : ascendingIds[i]);
+        }
+        return pageIds;
+    }
+
+    private List<PatientSummaryDTO> fetchInIdOrder(long[] ascendingIds, Pageable pageable, boolean descending) {
+        return fetchSummariesInOrder(pageOfIds(ascendingIds, pageable, descending));
+    }
+
+    private List<PatientSummaryDTO> fetchSummariesInOrder(List<Long> pageIds) {
+        if (pageIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, PatientSummaryDTO> byId = patientRepository.findSummariesByIdIn(pageIds, Pageable.unpaged())
+                .stream()
+                .collect(Collectors.toMap(PatientSummaryDTO::getId, Function.identity()));
+        List<PatientSummaryDTO> ordered = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            PatientSummaryDTO patient = byId.get(id);
+            if (patient != null) {
+                ordered.add(patient);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * The columns a JSON Merge Patch (RFC 7396) sets. Keys are PatientUpdateDTO fields with
+     * the same validation; a null value clears an optional field.
+     */
+    private Map<PatientField, Object> mergePatchChanges(Map<String, Object> mergePatch) {
+        if (mergePatch == null || mergePatch.isEmpty()) {
+            throw new ValidationException("The patch must change at least one field");
+        }
+        for (Map.Entry<String, Object> entry : mergePatch.entrySet()) {
+            PatientField field = PATCHABLE_FIELDS.get(entry.getKey());
+            if (field == null) {
+                throw new ValidationException("Field '" + entry.getKey() + "' cannot be patched. Patchable fields: "
+                        + String.join(", ", PATCHABLE_FIELDS.keySet()));
+            }
+            if (entry.getValue() == null && REQUIRED_FIELDS.contains(field)) {
+                throw new ValidationException(entry.getKey() + " cannot be removed");
+            }
+        }
+
+        PatientUpdateDTO values;
+        try {
+            values = objectMapper.convertValue(mergePatch, PatientUpdateDTO.class);
+        } catch (JacksonException | IllegalArgumentException ex) {
+            throw new ValidationException("Invalid patch: " + ex.getMessage());
+        }
+        String violations = validator.validate(values).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            throw new ValidationException(violations);
+        }
+        if (values.getDateOfBirth() != null && values.getDateOfBirth().isAfter(LocalDate.now())) {
+            throw new ValidationException("Date of birth cannot be in the future");
+        }
+
+        Map<PatientField, Object> changes = new EnumMap<>(PatientField.class);
+        for (String key : mergePatch.keySet()) {
+            PatientField field = PATCHABLE_FIELDS.get(key);
+            changes.put(field, patchValue(field, values));
+        }
+        return changes;
+    }
+
+    private static Object patchValue(PatientField field, PatientUpdateDTO values) {
+        return switch (field) {
+            case FULL_NAME -> values.getFullName();
+            case GENDER -> values.getGender();
+            case DATE_OF_BIRTH -> values.getDateOfBirth();
+            case PHONE_NUMBER -> values.getPhoneNumber();
+            case EMAIL -> emptyToNull(values.getEmail());
+            case ADDRESS -> values.getAddress();
+            case BLOOD_GROUP -> values.getBloodGroup();
+            case CHRONIC_DISEASES -> values.getChronicDiseases();
+            case ALLERGIES -> values.getAllergies();
+            case EMERGENCY_CONTACT_NAME -> values.getEmergencyContactName();
+            case EMERGENCY_CONTACT_PHONE -> values.getEmergencyContactPhone();
+            default -> throw new IllegalArgumentException(field + " is not patchable");
+        };
+    }
+
+    /**
+     * Maps a unique index violation on phone number or email to the message the old
+     * exists checks gave. Anything else is not a client error and is rethrown as is.
+     */
+    private static RuntimeException duplicateValueException(DataIntegrityViolationException ex) {
+        String constraint = null;
+        for (Throwable cause = ex; cause != null && constraint == null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                constraint = violation.getConstraintName();
+            }
+        }
+        if (constraint == null) {
+            constraint = String.valueOf(ex.getMostSpecificCause().getMessage());
+        }
+        if (constraint.contains(PHONE_NUMBER_CONSTRAINT)) {
+            return new ValidationException("Phone number already exists", ex);
+        }
+        if (constraint.contains(EMAIL_CONSTRAINT)) {
+            return new ValidationException("Email already exists", ex);
+        }
+        return ex;
+    }
+
+    // A blank email is stored as null, so it never collides in the unique email index
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private PatientResponseDTO mapToResponseDTO(Patient patient) {
+        return PatientResponseDTO.from(patient);
+    }
 }
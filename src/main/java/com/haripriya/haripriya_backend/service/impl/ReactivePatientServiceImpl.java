@@ -0,0 +1,71 @@
+package com.haripriya.haripriya_backend.service.impl;
+
+import com.haripriya.haripriya_backend.dto.PatientResponseDTO;
+import com.haripriya.haripriya_backend.dto.PatientSummaryDTO;
+import com.haripriya.haripriya_backend.entity.PatientRecord;
+import com.haripriya.haripriya_backend.exception.ResourceNotFoundException;
+import com.haripriya.haripriya_backend.repository.ReactivePatientRepository;
+import com.haripriya.haripriya_backend.search.SearchTermClassifier;
+import com.haripriya.haripriya_backend.service.ReactivePatientService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "patients.reactive-reads.enabled", havingValue = "true")
+public class ReactivePatientServiceImpl implements ReactivePatientService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePatientServiceImpl.class);
+    private final ReactivePatientRepository reactivePatientRepository;
+
+    @Override
+    public Mono<PatientResponseDTO> getPatientById(Long id) {
+        logger.info("Fetching patient by ID (reactive): {}", id);
+        return reactivePatientRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Patient not found with ID: " + id)))
+                .map(this::mapToResponseDTO);
+    }
+
+    @Override
+    public Mono<PatientResponseDTO> getPatientByCode(String patientCode) {
+        logger.info("Fetching patient by code (reactive): {}", patientCode);
+        return reactivePatientRepository.findByPatientCode(patientCode)
+                .switchIfEmpty(Mono.error(
+                        () -> new ResourceNotFoundException("Patient not found with code: " + patientCode)))
+                .map(this::mapToResponseDTO);
+    }
+
+    @Override
+    public Flux<PatientSummaryDTO> searchPatients(String searchTerm, Boolean isActive, int page, int size) {
+        logger.info("Searching patients (reactive) with term: {}", searchTerm);
+        long offset = (long) page * size;
+        Flux<PatientRecord> records = switch (SearchTermClassifier.classify(searchTerm)) {
+            case PATIENT_CODE -> page(reactivePatientRepository.searchByPatientCode(searchTerm.trim()),
+                    isActive, offset, size);
+            case EMAIL -> page(reactivePatientRepository.searchByEmail(searchTerm.trim()), isActive, offset, size);
+            case PHONE -> page(reactivePatientRepository.searchByPhoneDigits(SearchTermClassifier.digitsOf(searchTerm)),
+                    isActive, offset, size);
+            default -> isActive != null
+                    ? reactivePatientRepository.searchActivePatients(searchTerm, isActive, size, offset)
+                    : reactivePatientRepository.searchPatients(searchTerm, size, offset);
+        };
+        return records.map(record -> PatientSummaryDTO.from(record.toPatient()));
+    }
+
+    // Exact lookups match a handful of rows, so the status filter and the page are applied here
+    private static Flux<PatientRecord> page(Flux<PatientRecord> matches, Boolean isActive, long offset, int size) {
+        return matches
+                .filter(record -> isActive == null || isActive.equals(record.getIsActive()))
+                .skip(offset)
+                .take(size);
+    }
+
+    private PatientResponseDTO mapToResponseDTO(PatientRecord record) {
+        return PatientResponseDTO.from(record.toPatient());
+    }
+}
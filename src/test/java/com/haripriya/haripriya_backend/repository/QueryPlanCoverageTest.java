@@ -0,0 +1,51 @@
+package com.haripriya.haripriya_backend.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every query method declared on the repositories, the PatientFieldQueries fragment and
+ * the JDBC repositories, and every PatientSpecifications factory, needs a case in
+ * {@link QueryPlanRegressionTest}, named after the method. Runs without Docker, so a new
+ * query without a case fails every build, not only the ones that run the plans.
+ */
+class QueryPlanCoverageTest {
+
+    private static final Pattern METHOD_NAME = Pattern.compile("^\\w+");
+
+    @Test
+    void everyRepositoryQueryHasAPlanCase() {
+        Set<String> covered = QueryPlanRegressionTest.queries()
+                .map(arguments -> methodName((String) arguments.get()[0]))
+                .collect(Collectors.toSet());
+
+        List<String> missing = Stream.of(PatientRepository.class, UserRepository.class, PatientFieldQueries.class,
+                        PatientCodeCounterRepository.class, PatientPatchRepository.class,
+                        PatientBulkInsertRepository.class, PatientSpecifications.class)
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                .filter(method -> !method.isSynthetic() && Modifier.isPublic(method.getModifiers()))
+                .map(Method::getName)
+                .filter(name -> !covered.contains(name))
+                .distinct()
+                .sorted()
+                .toList();
+        assertTrue(missing.isEmpty(), () -> "No case in QueryPlanRegressionTest for " + missing);
+    }
+
+    // Case names start with the method name, optionally followed by a note like "(ADMIN)" or ", deep page"
+    private static String methodName(String caseName) {
+        Matcher matcher = METHOD_NAME.matcher(caseName);
+        return matcher.find() ? matcher.group() : caseName;
+    }
+}
@@ -0,0 +1,390 @@
+package com.haripriya.haripriya_backend.repository;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs EXPLAIN (ANALYZE, BUFFERS) for the SQL behind the PatientRepository and
+ * UserRepository queries, the Criteria queries built from PatientSpecifications and the
+ * JDBC repositories against PostgreSQL loaded with create-schema.sql and a
+ * realistic dataset. Fails when a selective lookup falls back to a sequential scan or
+ * a query goes over its buffer budget. Pages touched do not depend on the machine the
+ * build runs on, unlike timings, so there are no latency budgets. Needs Docker, skipped
+ * without it.
+ * <p>
+ * The statements mirror what Hibernate generates for each repository method; when a
+ * query is added or changed, add or update its case here together with any index it needs.
+ * {@link QueryPlanCoverageTest} fails for repository methods and specifications without a
+ * case. Statements that write run twice like the others, so their cases pick rows the
+ * second run may miss or conflict with.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanRegressionTest {
+
+    private static final int PATIENTS = 200_000;
+    private static final int USERS = 20_000;
+
+    private static final String PATIENT_SUMMARY = "SELECT p.id, p.patient_code, p.full_name, p.gender, "
+            + "p.date_of_birth, p.phone_number, p.is_active FROM testbackendproject.patients p ";
+    private static final String SEARCH_CONDITION = "(LOWER(p.full_name) LIKE LOWER('%' || ? || '%') OR "
+            + "LOWER(p.phone_number) LIKE LOWER('%' || ? || '%') OR "
+            + "LOWER(p.patient_code) LIKE LOWER('%' || ? || '%'))";
+    private static final String USER_COLUMNS = "SELECT u.id, u.full_name, u.email, u.phone, u.password, u.role, "
+            + "u.auth_provider, u.is_active, u.account_version, u.tokens_valid_after, u.created_at, u.updated_at "
+            + "FROM testbackendproject.users u ";
+    private static final String RETURNING_PATIENT = " RETURNING id, patient_code, full_name, gender, "
+            + "date_of_birth, phone_number, email, address, blood_group, chronic_diseases, allergies, "
+            + "emergency_contact_name, emergency_contact_phone, is_active, version, created_at, updated_at";
+    private static final String RETURNING_INDEX_ROW = " RETURNING id, full_name, phone_number, patient_code, "
+            + "is_active, date_of_birth, gender, blood_group, created_at";
+    private static final String INDEX_ROW = "SELECT p.id, p.full_name, p.phone_number, p.patient_code, p.is_active, "
+            + "p.date_of_birth, p.gender, p.blood_group, p.created_at FROM testbackendproject.patients p ";
+
+    // Single-row lookups should touch a handful of index and heap pages
+    private static final long LOOKUP_BUFFERS = 50;
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+    private static final Pattern BUFFERS = Pattern.compile("Buffers: shared(?: hit=(\\d+))?(?: read=(\\d+))?");
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("create-schema.sql"),
+                    "/docker-entrypoint-initdb.d/create-schema.sql");
+
+    @BeforeAll
+    static void loadDataset() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO testbackendproject.patients (patient_code, full_name, gender, "
+                    + "date_of_birth, phone_number, email, address, blood_group, chronic_diseases, allergies, "
+                    + "is_active, created_at, updated_at) "
+                    + "SELECT 'PAT-' || to_char(DATE '2024-01-01' + i / 500, 'YYYYMMDD') || '-' "
+                    + "|| lpad((i % 500)::text, 4, '0'), "
+                    + "(ARRAY['Aarav','Diya','Ishaan','Kavya','Rohan','Ananya','Vihaan','Saanvi','Arjun','Meera',"
+                    + "'Karthik','Lakshmi','Haripriya','Suresh','Priya','Nikhil','Divya','Rahul','Sneha','Vikram'])"
+                    + "[1 + i % 20] || ' ' || "
+                    + "(ARRAY['Sharma','Reddy','Iyer','Nair','Patel','Gupta','Menon','Rao','Pillai','Kumar',"
+                    + "'Singh','Das','Joshi','Naidu','Varma','Bose','Chatterjee','Mehta','Shetty','Kulkarni',"
+                    + "'Desai','Hegde','Kapoor','Malhotra','Banerjee','Mishra','Pandey','Saxena','Thakur','Yadav'])"
+                    + "[1 + (i / 20) % 30], "
+                    + "(ARRAY['MALE','FEMALE','OTHER'])[1 + (i / 7) % 3], "
+                    + "DATE '1940-01-01' + (i * 7919) % 30000, "
+                    + "(9000000000 + i)::text, "
+                    + "CASE WHEN i % 5 < 3 THEN 'patient' || i || '@example.com' END, "
+                    + "i || ' Gandhi Road, Hyderabad', "
+                    + "CASE WHEN i % 9 = 0 THEN NULL ELSE (ARRAY['A_POSITIVE','A_NEGATIVE','B_POSITIVE',"
+                    + "'B_NEGATIVE','O_POSITIVE','O_NEGATIVE','AB_POSITIVE','AB_NEGATIVE'])[1 + i % 8] END, "
+                    + "repeat('Type 2 diabetes, hypertension. ', 1 + i % 10), "
+                    + "CASE WHEN i % 4 = 0 THEN 'Penicillin' END, "
+                    + "i % 10 <> 0, "
+                    + "TIMESTAMP '2024-01-01' + (i / 500) * INTERVAL '1 day', "
+                    + "TIMESTAMP '2024-01-01' + (i / 500) * INTERVAL '1 day' "
+                    + "FROM generate_series(1, " + PATIENTS + ") AS i");
+            statement.execute("INSERT INTO testbackendproject.users (full_name, email, phone, password, role, "
+                    + "auth_provider, is_active, account_version, tokens_valid_after, created_at, updated_at) "
+                    + "SELECT 'Staff ' || i, 'user' || i || '@example.com', (8000000000 + i)::text, "
+                    + "'$2a$10$abcdefghijklmnopqrstuv0123456789012345678901234567890', "
+                    + "CASE WHEN i % 100 = 0 THEN 'ADMIN' WHEN i % 3 = 0 THEN 'DOCTOR' ELSE 'RECEPTIONIST' END, "
+                    + "'INTERNAL', i % 40 <> 0, CASE WHEN i % 60 = 0 THEN 1 ELSE 0 END, "
+                    + "CASE WHEN i % 200 = 0 THEN now() END, now(), now() "
+                    + "FROM generate_series(1, " + USERS + ") AS i");
+            statement.execute("INSERT INTO testbackendproject.patient_code_counters (code_date, last_value) "
+                    + "SELECT DATE '2024-01-01' + d, 500 FROM generate_series(0, " + PATIENTS / 500 + ") AS d");
+            statement.execute("VACUUM ANALYZE");
+        }
+    }
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                // PatientRepository
+                Arguments.of("findByPatientCode",
+                        "SELECT * FROM testbackendproject.patients p WHERE p.patient_code = ?",
+                        new Object[] {"PAT-20240301-0042"}, false, LOOKUP_BUFFERS),
+                Arguments.of("findIdStatesByPatientCode",
+                        "SELECT p.id, p.is_active FROM testbackendproject.patients p WHERE p.patient_code = ?",
+                        new Object[] {"PAT-20240301-0042"}, false, LOOKUP_BUFFERS),
+                Arguments.of("findIdStatesByEmail",
+                        "SELECT p.id, p.is_active FROM testbackendproject.patients p WHERE LOWER(p.email) = LOWER(?)",
+                        new Object[] {"Patient1234@Example.com"}, false, LOOKUP_BUFFERS),
+                Arguments.of("findIdStatesByPhoneDigits",
+                        "SELECT id, is_active FROM testbackendproject.patients WHERE "
+                                + "regexp_replace(phone_number, '[^0-9]', '', 'g') LIKE ? || '%' OR "
+                                + "reverse(regexp_replace(phone_number, '[^0-9]', '', 'g')) LIKE reverse(?) || '%'",
+                        new Object[] {"9000123456", "9000123456"}, false, LOOKUP_BUFFERS),
+                Arguments.of("findSummariesByIsActive (formerly findByIsActive)",
+                        PATIENT_SUMMARY + "WHERE p.is_active = ? ORDER BY p.id DESC LIMIT 10",
+                        new Object[] {true}, false, 100L),
+                Arguments.of("findSummariesByIsActive, deep page",
+                        PATIENT_SUMMARY + "WHERE p.is_active = ? ORDER BY p.id DESC LIMIT 10 OFFSET 5000",
+                        new Object[] {false}, false, 5_000L),
+                Arguments.of("findSummaries sorted by fullName",
+                        PATIENT_SUMMARY + "ORDER BY p.full_name ASC, p.id ASC LIMIT 10",
+                        new Object[] {}, false, 100L),
+                // Slice variants read one row more than the page and run no count query
+                Arguments.of("findSummariesSlice",
+                        PATIENT_SUMMARY + "ORDER BY p.id DESC LIMIT 11",
+                        new Object[] {}, false, 100L),
+                Arguments.of("findSummariesSliceByIsActive",
+                        PATIENT_SUMMARY + "WHERE p.is_active = ? ORDER BY p.id DESC LIMIT 11",
+                        new Object[] {true}, false, 100L),
+                Arguments.of("searchPatientsSlice",
+                        PATIENT_SUMMARY + "WHERE " + SEARCH_CONDITION + " ORDER BY p.id DESC LIMIT 11",
+                        new Object[] {"kavya iyer", "kavya iyer", "kavya iyer"}, false, 2_000L),
+                Arguments.of("searchActivePatientsSlice",
+                        PATIENT_SUMMARY + "WHERE p.is_active = ? AND " + SEARCH_CONDITION
+                                + " ORDER BY p.id DESC LIMIT 11",
+                        new Object[] {true, "kavya iyer", "kavya iyer", "kavya iyer"}, false, 2_000L),
+                Arguments.of("searchPatients",
+                        PATIENT_SUMMARY + "WHERE " + SEARCH_CONDITION + " ORDER BY p.id DESC LIMIT 10",
+                        new Object[] {"kavya iyer", "kavya iyer", "kavya iyer"}, false, 2_000L),
+                Arguments.of("searchPatients count",
+                        "SELECT COUNT(p.id) FROM testbackendproject.patients p WHERE " + SEARCH_CONDITION,
+                        new Object[] {"kavya iyer", "kavya iyer", "kavya iyer"}, false, 2_000L),
+                Arguments.of("searchActivePatients",
+                        PATIENT_SUMMARY + "WHERE p.is_active = ? AND " + SEARCH_CONDITION
+                                + " ORDER BY p.id DESC LIMIT 10",
+                        new Object[] {true, "kavya iyer", "kavya iyer", "kavya iyer"}, false, 2_000L),
+                Arguments.of("searchPatients by phone fragment",
+                        PATIENT_SUMMARY + "WHERE " + SEARCH_CONDITION + " ORDER BY p.id DESC LIMIT 10",
+                        new Object[] {"0012345", "0012345", "0012345"}, false, 2_000L),
+                Arguments.of("findSummariesByIdIn",
+                        PATIENT_SUMMARY + "WHERE p.id IN (?, ?, ?, ?, ?) ORDER BY p.id DESC LIMIT 10",
+                        new Object[] {11L, 4_242L, 50_000L, 123_456L, 199_999L}, false, LOOKUP_BUFFERS),
+                Arguments.of("findIndexRowsAfter",
+                        INDEX_ROW + "WHERE p.id > ? ORDER BY p.id LIMIT 5000",
+                        new Object[] {100_000L}, false, 2_000L),
+                // The dataset's last few days, about 1,500 rows
+                Arguments.of("findIndexRowsUpdatedSince",
+                        INDEX_ROW + "WHERE p.updated_at >= ? AND p.id > ? ORDER BY p.id LIMIT 5000",
+                        new Object[] {Timestamp.valueOf("2025-01-31 00:00:00"), 0L}, false, 2_000L),
+
+                // PatientFieldQueries and the PatientSpecifications behind findBy (scroll, /filter fallback)
+                Arguments.of("findFields (fields=fullName,phoneNumber, active page)",
+                        "SELECT p.full_name, p.phone_number FROM testbackendproject.patients p WHERE p.is_active = ? "
+                                + "ORDER BY p.id DESC LIMIT 20",
+                        new Object[] {true}, false, 100L),
+                Arguments.of("hasPatientCode (findFields)",
+                        "SELECT p.full_name, p.phone_number FROM testbackendproject.patients p "
+                                + "WHERE p.patient_code = ? LIMIT 1",
+                        new Object[] {"PAT-20240301-0042"}, false, LOOKUP_BUFFERS),
+                Arguments.of("idIn (findFields batch)",
+                        "SELECT p.id, p.full_name FROM testbackendproject.patients p WHERE p.id IN (?, ?, ?, ?, ?) "
+                                + "LIMIT 5",
+                        new Object[] {11L, 4_242L, 50_000L, 123_456L, 199_999L}, false, LOOKUP_BUFFERS),
+                Arguments.of("patientCodeIn (findFields batch)",
+                        "SELECT p.patient_code, p.full_name FROM testbackendproject.patients p "
+                                + "WHERE p.patient_code IN (?, ?, ?, ?, ?) LIMIT 5",
+                        new Object[] {"PAT-20240101-0011", "PAT-20240109-0242", "PAT-20240410-0000",
+                                "PAT-20240903-0456", "PAT-20250203-0499"}, false, LOOKUP_BUFFERS),
+                Arguments.of("hasActiveStatus (scrollPatients by fullName, first page)",
+                        PATIENT_SUMMARY + "WHERE p.is_active = ? ORDER BY p.full_name ASC, p.id ASC LIMIT 21",
+                        new Object[] {true}, false, 100L),
+                Arguments.of("seekAfter (fullName, id)",
+                        PATIENT_SUMMARY + "WHERE p.is_active = ? AND p.full_name >= ? "
+                                + "AND (p.full_name > ? OR p.id > ?) ORDER BY p.full_name ASC, p.id ASC LIMIT 21",
+                        new Object[] {true, "Kavya Nair", "Kavya Nair", 100_000L}, false, 100L),
+                Arguments.of("seekAfter (createdAt, id) descending",
+                        PATIENT_SUMMARY + "WHERE p.created_at <= ? AND (p.created_at < ? OR p.id < ?) "
+                                + "ORDER BY p.created_at DESC, p.id DESC LIMIT 21",
+                        new Object[] {Timestamp.valueOf("2024-06-01 00:00:00"),
+                                Timestamp.valueOf("2024-06-01 00:00:00"), 76_000L}, false, 100L),
+                Arguments.of("matchesSearchTerm (scrollPatients without the in-memory index)",
+                        PATIENT_SUMMARY + "WHERE lower(p.full_name) LIKE ? OR lower(p.phone_number) LIKE ? "
+                                + "OR lower(p.patient_code) LIKE ? ORDER BY p.full_name ASC, p.id ASC LIMIT 21",
+                        new Object[] {"%kavya iyer%", "%kavya iyer%", "%kavya iyer%"}, false, 2_000L),
+                Arguments.of("matchesFilter (/filter without the facet index)",
+                        PATIENT_SUMMARY + "WHERE p.gender IN (?, ?) AND p.is_active = ? AND p.date_of_birth <= ? "
+                                + "AND p.date_of_birth >= ? ORDER BY p.id DESC LIMIT 20",
+                        new Object[] {"FEMALE", "OTHER", false, Date.valueOf("1995-10-18"),
+                                Date.valueOf("1975-10-19")}, false, 2_000L),
+
+                // JDBC repositories: PatientPatchRepository, PatientBulkInsertRepository
+                Arguments.of("updateIfVersion",
+                        "UPDATE testbackendproject.patients SET full_name = ?, address = ?, version = version + 1, "
+                                + "updated_at = ? WHERE id = ? AND version = ?" + RETURNING_PATIENT,
+                        new Object[] {"Kavya Nair-Iyer", "12 MG Road, Hyderabad",
+                                Timestamp.valueOf("2025-02-01 10:00:00"), 4_242L, 0L}, false, 200L),
+                Arguments.of("setActiveByIds",
+                        "UPDATE testbackendproject.patients SET is_active = ?, version = version + 1, "
+                                + "updated_at = ? WHERE id IN (?, ?, ?, ?, ?) AND is_active <> ?" + RETURNING_INDEX_ROW,
+                        new Object[] {false, Timestamp.valueOf("2025-02-01 10:00:00"), 12L, 4_243L, 50_001L,
+                                123_457L, 199_998L, false}, false, 500L),
+                // One chunk of patients.bulk-status.chunk-size rows, each updating the indexes on is_active
+                Arguments.of("setActiveWhereNotUpdatedSince",
+                        "UPDATE testbackendproject.patients SET is_active = ?, version = version + 1, "
+                                + "updated_at = ? WHERE id IN (SELECT id FROM testbackendproject.patients "
+                                + "WHERE is_active <> ? AND updated_at < ? ORDER BY id LIMIT ?)" + RETURNING_INDEX_ROW,
+                        new Object[] {false, Timestamp.valueOf("2025-02-01 10:00:00"), false,
+                                Timestamp.valueOf("2024-06-01 00:00:00"), 500}, false, 20_000L),
+                Arguments.of("allocateIds",
+                        "SELECT nextval('testbackendproject.patients_id_seq') FROM generate_series(1, ?)",
+                        new Object[] {20}, false, LOOKUP_BUFFERS),
+                Arguments.of("findExistingEmails",
+                        "SELECT email FROM testbackendproject.patients WHERE email IN (?, ?, ?, ?, ?)",
+                        new Object[] {"patient10@example.com", "patient4241@example.com", "new1@example.com",
+                                "patient123450@example.com", "new2@example.com"}, false, LOOKUP_BUFFERS),
+                // The second run hits the phone number conflict and inserts nothing
+                Arguments.of("insertAll",
+                        "INSERT INTO testbackendproject.patients (id, patient_code, full_name, gender, "
+                                + "date_of_birth, phone_number, email, address, blood_group, chronic_diseases, "
+                                + "allergies, emergency_contact_name, emergency_contact_phone, is_active, created_at, "
+                                + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                                + "ON CONFLICT (phone_number) DO NOTHING",
+                        new Object[] {1_000_001L, "PAT-20250301-0001", "Imported Patient", "FEMALE",
+                                Date.valueOf("1990-05-05"), "9100000001", "imported1@example.com",
+                                "1 Tank Bund Road, Hyderabad", "O_POSITIVE", null, null, null, null, true,
+                                Timestamp.valueOf("2025-02-01 10:00:00"), Timestamp.valueOf("2025-02-01 10:00:00")},
+                        false, 200L),
+
+                // PatientCodeCounterRepository
+                Arguments.of("reserveBlock",
+                        "UPDATE testbackendproject.patient_code_counters SET last_value = last_value + ? "
+                                + "WHERE code_date = ? RETURNING last_value",
+                        new Object[] {20, Date.valueOf("2024-09-08")}, false, LOOKUP_BUFFERS),
+
+                // UserRepository
+                Arguments.of("findByEmail",
+                        USER_COLUMNS + "WHERE u.email = ?",
+                        new Object[] {"user4321@example.com"}, false, LOOKUP_BUFFERS),
+                Arguments.of("findByPhone",
+                        USER_COLUMNS + "WHERE u.phone = ?",
+                        new Object[] {"8000004321"}, false, LOOKUP_BUFFERS),
+                Arguments.of("existsByEmail (users)",
+                        "SELECT u.id FROM testbackendproject.users u WHERE u.email = ? LIMIT 1",
+                        new Object[] {"user4321@example.com"}, false, LOOKUP_BUFFERS),
+                Arguments.of("existsByPhone",
+                        "SELECT u.id FROM testbackendproject.users u WHERE u.phone = ? LIMIT 1",
+                        new Object[] {"8000004321"}, false, LOOKUP_BUFFERS),
+                Arguments.of("findByRole(ADMIN)",
+                        USER_COLUMNS + "WHERE u.role = ?",
+                        new Object[] {"ADMIN"}, false, 500L),
+                Arguments.of("findByIsActive(false)",
+                        USER_COLUMNS + "WHERE u.is_active = ?",
+                        new Object[] {false}, false, 1_000L),
+                Arguments.of("findAccountStates",
+                        "SELECT u.id, u.is_active, u.account_version FROM testbackendproject.users u "
+                                + "WHERE u.is_active = false OR u.account_version > 0",
+                        new Object[] {}, false, 1_000L),
+                Arguments.of("findTokenEpochs",
+                        "SELECT u.id, u.tokens_valid_after FROM testbackendproject.users u "
+                                + "WHERE u.tokens_valid_after IS NOT NULL",
+                        new Object[] {}, false, 500L),
+                Arguments.of("updateTokensValidAfter",
+                        "UPDATE testbackendproject.users SET tokens_valid_after = ? WHERE id = ?",
+                        new Object[] {null, 4_321L}, false, LOOKUP_BUFFERS),
+                // The second run finds the version already bumped and updates nothing
+                Arguments.of("updateAccountStateIfVersion",
+                        "UPDATE testbackendproject.users SET role = ?, is_active = ?, "
+                                + "account_version = account_version + 1, updated_at = ? "
+                                + "WHERE id = ? AND account_version = ?",
+                        new Object[] {"DOCTOR", true, Timestamp.valueOf("2025-02-01 10:00:00"), 4_322L, 0},
+                        false, LOOKUP_BUFFERS),
+
+                // Queries that read most of a table may scan it, but must stay inside their budget
+                Arguments.of("findByRole(RECEPTIONIST)",
+                        USER_COLUMNS + "WHERE u.role = ?",
+                        new Object[] {"RECEPTIONIST"}, true, 2_000L),
+                Arguments.of("countByActiveStatus",
+                        "SELECT p.is_active, COUNT(p.id) FROM testbackendproject.patients p GROUP BY p.is_active",
+                        new Object[] {}, true, 40_000L),
+                // /filter without the facet index: the page count and one GROUP BY per facet, each without
+                // its own facet's condition, so at least one of them covers most of the table
+                Arguments.of("matchesFilter count",
+                        "SELECT COUNT(p.id) FROM testbackendproject.patients p WHERE p.gender IN (?, ?) "
+                                + "AND p.is_active = ? AND p.date_of_birth <= ? AND p.date_of_birth >= ?",
+                        new Object[] {"FEMALE", "OTHER", false, Date.valueOf("1995-10-18"),
+                                Date.valueOf("1975-10-19")}, true, 40_000L),
+                Arguments.of("countGroupedBy gender",
+                        "SELECT p.gender, COUNT(p.id) FROM testbackendproject.patients p WHERE p.is_active = ? "
+                                + "AND p.date_of_birth <= ? AND p.date_of_birth >= ? GROUP BY p.gender",
+                        new Object[] {false, Date.valueOf("1995-10-18"), Date.valueOf("1975-10-19")}, true, 40_000L),
+                Arguments.of("countGroupedBy bloodGroup",
+                        "SELECT p.blood_group, COUNT(p.id) FROM testbackendproject.patients p WHERE p.gender IN (?, ?) "
+                                + "AND p.is_active = ? AND p.date_of_birth <= ? AND p.date_of_birth >= ? "
+                                + "GROUP BY p.blood_group",
+                        new Object[] {"FEMALE", "OTHER", false, Date.valueOf("1995-10-18"),
+                                Date.valueOf("1975-10-19")}, true, 40_000L),
+                Arguments.of("countGroupedBy isActive",
+                        "SELECT p.is_active, COUNT(p.id) FROM testbackendproject.patients p WHERE p.gender IN (?, ?) "
+                                + "AND p.date_of_birth <= ? AND p.date_of_birth >= ? GROUP BY p.is_active",
+                        new Object[] {"FEMALE", "OTHER", Date.valueOf("1995-10-18"), Date.valueOf("1975-10-19")},
+                        true, 40_000L),
+                // Once per day and node, when the day's counter row does not exist yet; patient_code has
+                // no pattern index, so the prefix match reads the table
+                Arguments.of("createCounter",
+                        "INSERT INTO testbackendproject.patient_code_counters (code_date, last_value) "
+                                + "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(patient_code FROM '[0-9]+$') AS BIGINT)), 0) "
+                                + "+ ? FROM testbackendproject.patients WHERE patient_code LIKE ? || '%' "
+                                + "ON CONFLICT (code_date) DO UPDATE SET last_value = "
+                                + "patient_code_counters.last_value + ? RETURNING last_value",
+                        new Object[] {Date.valueOf("2025-03-01"), 20, "PAT-20250301-", 20}, true, 40_000L));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void planStaysWithinBudget(String name, String sql, Object[] params, boolean allowSeqScan, long maxBuffers)
+            throws SQLException {
+        explain(sql, params);
+        // Second run reads the warmed-up cache, as in production
+        String plan = explain(sql, params);
+
+        if (!allowSeqScan) {
+            Matcher seqScan = SEQ_SCAN.matcher(plan);
+            assertFalse(seqScan.find(), () -> name + " scans " + seqScan.group(1) + " sequentially:\n" + plan);
+        }
+        long buffers = sharedBuffers(plan);
+        assertTrue(buffers <= maxBuffers,
+                () -> name + " touched " + buffers + " buffers, budget " + maxBuffers + ":\n" + plan);
+    }
+
+    private static String explain(String sql, Object[] params) throws SQLException {
+        try (Connection connection = connect();
+                PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    // The first Buffers line belongs to the top plan node and includes all of its children
+    private static long sharedBuffers(String plan) {
+        Matcher matcher = BUFFERS.matcher(plan);
+        if (!matcher.find()) {
+            return 0;
+        }
+        long hit = matcher.group(1) == null ? 0 : Long.parseLong(matcher.group(1));
+        long read = matcher.group(2) == null ? 0 : Long.parseLong(matcher.group(2));
+        return hit + read;
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
@@ -0,0 +1,184 @@
+package com.haripriya.haripriya_backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks suggestions against a brute-force prefix match over the same names, for the
+ * loaded snapshot, for edits waiting in the overlay and after {@link NamePrefixIndex#compact()}.
+ */
+class NamePrefixIndexTest {
+
+    private static final String[] TOKENS = {"Aarav", "Arjun", "Ananya", "Anand", "Kavya", "Kavitha", "Karthik",
+            "Nair", "Naidu", "Naik", "Sharma", "Shah", "Reddy", "Rao", "Iyer", "Priya", "Haripriya", "Lakshmi",
+            "Menon", "Meera", "O'Brien", "Das"};
+    private static final String[] QUERIES = {"a", "an", "ana", "kav", "kavya", "na", "nai", "sh", "ra", "r",
+            "zz", "kav na", "na kav", "an sh", "priya ha", "har", "o b", "brien", "a a", "ka ka", "me me",
+            "lakshmi iyer", "s r d", "an anand", "kav kavya na"};
+
+    private final Random random = new Random(13);
+    private final NamePrefixIndex index = new NamePrefixIndex();
+    private final Map<Long, NamePrefixIndex.Entry> entries = new TreeMap<>();
+
+    @Test
+    void matchesEveryQueryTokenAsAPrefixOfSomeNameToken() {
+        load(entry(1, "Kavya Nair", true), entry(2, "Nair Kavitha", true), entry(3, "Kavya Sharma", true),
+                entry(4, "Naveen Kumar", true), entry(5, "Anand Kavya Naidu", true));
+
+        assertEquals(Set.of(1L, 2L, 5L), Set.copyOf(ids(index.suggest("kav na", null, 10))));
+        assertEquals(Set.of(1L, 2L, 5L), Set.copyOf(ids(index.suggest("NA, Kav", null, 10))));
+        assertEquals(List.of(3L), ids(index.suggest("sharma kavya", null, 10)));
+        assertEquals(List.of(), ids(index.suggest("kavya kumar", null, 10)));
+        assertEquals(List.of(), ids(index.suggest("  ", null, 10)));
+    }
+
+    @Test
+    void oneNameTokenCanMatchTwoQueryTokens() {
+        load(entry(1, "Anand Kumar", true), entry(2, "Ananya Anand", true), entry(3, "Arjun Nair", true));
+
+        // "an" is implied by "anand", so a single name token satisfies both
+        assertEquals(Set.of(1L, 2L), Set.copyOf(ids(index.suggest("an anand", null, 10))));
+        assertEquals(List.of(1L), ids(index.suggest("anand an ku", null, 10)));
+    }
+
+    @Test
+    void singleTokenResultsAreOrderedByMatchingTokenThenName() {
+        load(entry(1, "Zed Anand", true), entry(2, "Ananya Rao", true), entry(3, "Anand Iyer", true),
+                entry(4, "Anand Das", true));
+
+        // anand (Anand Das, Anand Iyer, Zed Anand), then ananya
+        assertEquals(List.of(4L, 3L, 1L, 2L), ids(index.suggest("ana", null, 10)));
+        assertEquals(List.of(4L, 3L), ids(index.suggest("ana", null, 2)));
+    }
+
+    @Test
+    void filtersByActiveFlag() {
+        load(entry(1, "Kavya Nair", true), entry(2, "Kavya Rao", false), entry(3, "Kavitha Rao", false));
+
+        assertEquals(List.of(1L), ids(index.suggest("kav", true, 10)));
+        assertEquals(List.of(3L, 2L), ids(index.suggest("kav", false, 10)));
+        assertEquals(List.of(3L, 1L, 2L), ids(index.suggest("kav", null, 10)));
+    }
+
+    @Test
+    void overlayEditsShadowTheSnapshotBeforeAndAfterCompaction() {
+        load(entry(1, "Kavya Nair", true), entry(2, "Meera Rao", true));
+
+        // Renamed, deactivated and new patients live in the overlay first
+        put(entry(1, "Priya Nair", true));
+        put(entry(2, "Meera Rao", false));
+        put(entry(3, "Kavya Iyer", true));
+        assertEquals(3, index.overlaySize());
+        assertEquals(List.of(3L), ids(index.suggest("kavya", null, 10)));
+        assertEquals(List.of(1L), ids(index.suggest("priya", null, 10)));
+        assertEquals(List.of(), ids(index.suggest("meera", true, 10)));
+
+        index.compact();
+        assertEquals(0, index.overlaySize());
+        assertEquals(List.of(3L), ids(index.suggest("kavya", null, 10)));
+        assertEquals(List.of(1L), ids(index.suggest("priya", null, 10)));
+        assertEquals(List.of(2L), ids(index.suggest("meera", false, 10)));
+    }
+
+    @Test
+    void matchesBruteForceThroughOverlayEditsAndCompaction() {
+        List<NamePrefixIndex.Entry> loaded = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            loaded.add(randomEntry(id));
+        }
+        load(loaded.toArray(new NamePrefixIndex.Entry[0]));
+        compareAll();
+
+        for (int i = 0; i < 300; i++) {
+            put(randomEntry(1 + random.nextInt(2_500)));
+        }
+        compareAll();
+
+        index.compact();
+        compareAll();
+
+        for (int i = 0; i < 100; i++) {
+            put(randomEntry(1 + random.nextInt(2_500)));
+        }
+        compareAll();
+    }
+
+    private void compareAll() {
+        for (String query : QUERIES) {
+            for (Boolean isActive : new Boolean[] {null, true, false}) {
+                List<Long> expected = bruteForce(query, isActive);
+
+                List<Long> all = ids(index.suggest(query, isActive, 5_000));
+                assertEquals(new HashSet<>(expected), new HashSet<>(all), () -> query + " isActive=" + isActive);
+                assertEquals(expected.size(), all.size(), () -> query + " returned duplicates");
+
+                // limit cuts the same ordered list
+                List<Long> limited = ids(index.suggest(query, isActive, 7));
+                assertEquals(Math.min(7, expected.size()), limited.size(), () -> query + " limit 7");
+                assertEquals(all.subList(0, limited.size()), limited, () -> query + " limit 7");
+                if (NamePrefixIndex.tokenize(query).length == 1) {
+                    assertEquals(expected.subList(0, limited.size()), limited, () -> query + " order");
+                }
+            }
+        }
+    }
+
+    // Ordered like a single-token suggestion: first matching name token, then full name, then id
+    private List<Long> bruteForce(String query, Boolean isActive) {
+        String[] queryTokens = NamePrefixIndex.tokenize(query);
+        String first = queryTokens.length == 0 ? "" : queryTokens[0];
+        return entries.values().stream()
+                .filter(entry -> queryTokens.length > 0 && entry.matches(queryTokens, isActive))
+                .sorted(Comparator.comparing((NamePrefixIndex.Entry entry) -> entry.firstTokenStartingWith(first))
+                        .thenComparing(NamePrefixIndex.Entry::getNormalizedName)
+                        .thenComparingLong(NamePrefixIndex.Entry::getId))
+                .map(NamePrefixIndex.Entry::getId)
+                .toList();
+    }
+
+    // At most four name tokens (O'Brien is two), the most a name is paired on
+    private NamePrefixIndex.Entry randomEntry(long id) {
+        int tokens = 1 + random.nextInt(4);
+        Set<String> name = new LinkedHashSet<>();
+        while (name.size() < tokens) {
+            name.add(TOKENS[random.nextInt(TOKENS.length)]);
+        }
+        String fullName = String.join(" ", name);
+        if (NamePrefixIndex.tokenize(fullName).length > 4) {
+            return randomEntry(id);
+        }
+        return entry(id, fullName, random.nextInt(5) != 0);
+    }
+
+    private void load(NamePrefixIndex.Entry... loaded) {
+        for (NamePrefixIndex.Entry entry : loaded) {
+            entries.put(entry.getId(), entry);
+        }
+        index.load(List.of(loaded));
+    }
+
+    private void put(NamePrefixIndex.Entry entry) {
+        entries.put(entry.getId(), entry);
+        index.put(entry);
+    }
+
+    private static NamePrefixIndex.Entry entry(long id, String fullName, boolean active) {
+        return new NamePrefixIndex.Entry(id, "PAT-20261018-" + id, fullName, LocalDate.of(1990, 1, 1), active);
+    }
+
+    private static List<Long> ids(List<NamePrefixIndex.Entry> suggestions) {
+        return suggestions.stream().map(NamePrefixIndex.Entry::getId).toList();
+    }
+}
@@ -0,0 +1,213 @@
+package com.haripriya.haripriya_backend.search;
+
+import com.haripriya.haripriya_backend.dto.PatientFilter;
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.Gender;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the facet index with a brute-force filter over the same patients: matching
+ * ids and every facet count, with dates of birth on both sides of 1970 (negative epoch
+ * days), before the first sort of the day arrays, after it, and with changed patients
+ * waiting in the overlay until the next one.
+ */
+class PatientFacetIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+    private static final LocalDate FIRST_REGISTRATION = LocalDate.of(2019, 1, 1);
+
+    private final Random random = new Random(19);
+    private final PatientFacetIndex index = new PatientFacetIndex();
+    private final Map<Long, Row> rows = new TreeMap<>();
+
+    @Test
+    void matchesBruteForceBeforeAndAfterResorting() {
+        // Fewer changes than the resort threshold: every patient is still in the overlay
+        putRandom(800, 5_000);
+        compareRandomFilters(200);
+
+        // The first filter after this many changes sorts the day arrays
+        putRandom(20_000, 5_000);
+        compareRandomFilters(200);
+
+        // Replaced patients leave stale entries in the sorted arrays until the next sort
+        putRandom(600, 5_000);
+        compareRandomFilters(200);
+
+        putRandom(3_000, 8_000);
+        compareRandomFilters(200);
+    }
+
+    @Test
+    void birthRangesBeforeAndAcross1970() {
+        put(1, LocalDate.of(1935, 3, 1), LocalDate.of(2020, 1, 1));
+        put(2, LocalDate.of(1969, 12, 31), LocalDate.of(2020, 1, 1));
+        put(3, LocalDate.of(1970, 1, 1), LocalDate.of(2020, 1, 1));
+        put(4, LocalDate.of(2001, 6, 15), LocalDate.of(2020, 1, 1));
+        put(5, null, LocalDate.of(2020, 1, 1));
+        putRandom(3_000, 5_000);
+
+        for (int minAge = 0; minAge <= 100; minAge += 7) {
+            compare(PatientFilter.builder().minAge(minAge).build());
+            compare(PatientFilter.builder().maxAge(minAge).build());
+            compare(PatientFilter.builder().minAge(minAge).maxAge(minAge + 30).build());
+        }
+    }
+
+    @Test
+    void registrationRangesAreInclusive() {
+        put(1, LocalDate.of(1980, 1, 1), LocalDate.of(2024, 3, 1));
+        put(2, LocalDate.of(1980, 1, 1), LocalDate.of(2024, 3, 2));
+        put(3, LocalDate.of(1980, 1, 1), LocalDate.of(2024, 3, 3));
+
+        PatientFacetIndex.Result result = index.filter(PatientFilter.builder()
+                .registeredFrom(LocalDate.of(2024, 3, 2))
+                .registeredTo(LocalDate.of(2024, 3, 3))
+                .build(), TODAY);
+
+        assertEquals(List.of(2L, 3L), result.allIds());
+    }
+
+    private void putRandom(int count, int maxId) {
+        for (int i = 0; i < count; i++) {
+            long id = 1 + random.nextInt(maxId);
+            // Births from 1925 to today, about 45 years of them before the epoch
+            LocalDate birth = random.nextInt(50) == 0 ? null : TODAY.minusDays(random.nextInt(37_000));
+            LocalDate registered = random.nextInt(50) == 0 ? null : FIRST_REGISTRATION.plusDays(random.nextInt(2_800));
+            put(id, birth, registered);
+        }
+    }
+
+    private void put(long id, LocalDate birth, LocalDate registered) {
+        Gender gender = random.nextInt(20) == 0 ? null : Gender.values()[random.nextInt(Gender.values().length)];
+        BloodGroup bloodGroup = random.nextInt(9) == 0 ? null
+                : BloodGroup.values()[random.nextInt(BloodGroup.values().length)];
+        boolean active = random.nextInt(10) != 0;
+        index.put(id, gender, bloodGroup, active, birth, registered);
+        rows.put(id, new Row(id, gender, bloodGroup, active, birth, registered));
+    }
+
+    private void compareRandomFilters(int filters) {
+        for (int i = 0; i < filters; i++) {
+            compare(randomFilter());
+        }
+    }
+
+    private PatientFilter randomFilter() {
+        PatientFilter.PatientFilterBuilder filter = PatientFilter.builder();
+        if (random.nextBoolean()) {
+            filter.genders(randomSubset(Gender.class));
+        }
+        if (random.nextBoolean()) {
+            filter.bloodGroups(randomSubset(BloodGroup.class));
+        }
+        if (random.nextInt(3) == 0) {
+            filter.isActive(random.nextBoolean());
+        }
+        if (random.nextBoolean()) {
+            filter.minAge(random.nextInt(80));
+        }
+        if (random.nextBoolean()) {
+            filter.maxAge(random.nextInt(100));
+        }
+        if (random.nextBoolean()) {
+            filter.registeredFrom(FIRST_REGISTRATION.plusDays(random.nextInt(2_800)));
+        }
+        if (random.nextBoolean()) {
+            filter.registeredTo(FIRST_REGISTRATION.plusDays(random.nextInt(2_800)));
+        }
+        return filter.build();
+    }
+
+    private <E extends Enum<E>> Set<E> randomSubset(Class<E> type) {
+        Set<E> subset = EnumSet.noneOf(type);
+        for (E value : type.getEnumConstants()) {
+            if (random.nextInt(3) == 0) {
+                subset.add(value);
+            }
+        }
+        return subset;
+    }
+
+    private void compare(PatientFilter filter) {
+        PatientFacetIndex.Result result = index.filter(filter, TODAY);
+
+        List<Long> expectedIds = new ArrayList<>();
+        Map<Gender, Long> expectedGenders = new EnumMap<>(Gender.class);
+        Map<BloodGroup, Long> expectedBloodGroups = new EnumMap<>(BloodGroup.class);
+        Map<Boolean, Long> expectedActive = new LinkedHashMap<>();
+        for (Gender gender : Gender.values()) {
+            expectedGenders.put(gender, 0L);
+        }
+        for (BloodGroup bloodGroup : BloodGroup.values()) {
+            expectedBloodGroups.put(bloodGroup, 0L);
+        }
+        expectedActive.put(true, 0L);
+        expectedActive.put(false, 0L);
+
+        for (Row row : rows.values()) {
+            boolean inRanges = inRanges(row, filter);
+            boolean gender = isEmpty(filter.getGenders()) || filter.getGenders().contains(row.gender);
+            boolean bloodGroup = isEmpty(filter.getBloodGroups()) || filter.getBloodGroups().contains(row.bloodGroup);
+            boolean active = filter.getIsActive() == null || filter.getIsActive() == row.active;
+            if (inRanges && gender && bloodGroup && active) {
+                expectedIds.add(row.id);
+            }
+            // Each facet is counted with every filter except its own
+            if (inRanges && bloodGroup && active && row.gender != null) {
+                expectedGenders.merge(row.gender, 1L, Long::sum);
+            }
+            if (inRanges && gender && active && row.bloodGroup != null) {
+                expectedBloodGroups.merge(row.bloodGroup, 1L, Long::sum);
+            }
+            if (inRanges && gender && bloodGroup) {
+                expectedActive.merge(row.active, 1L, Long::sum);
+            }
+        }
+
+        assertEquals(expectedIds, result.allIds(), filter::toString);
+        assertEquals(expectedIds.size(), result.getTotal(), filter::toString);
+        assertEquals(expectedGenders, result.getGenderCounts(), filter::toString);
+        assertEquals(expectedBloodGroups, result.getBloodGroupCounts(), filter::toString);
+        assertEquals(expectedActive, result.getActiveCounts(), filter::toString);
+    }
+
+    private static boolean inRanges(Row row, PatientFilter filter) {
+        LocalDate latestBirth = filter.latestDateOfBirth(TODAY);
+        LocalDate earliestBirth = filter.earliestDateOfBirth(TODAY);
+        if (latestBirth != null || earliestBirth != null) {
+            if (row.birth == null
+                    || latestBirth != null && row.birth.isAfter(latestBirth)
+                    || earliestBirth != null && row.birth.isBefore(earliestBirth)) {
+                return false;
+            }
+        }
+        if (filter.getRegisteredFrom() != null || filter.getRegisteredTo() != null) {
+            return row.registered != null
+                    && (filter.getRegisteredFrom() == null || !row.registered.isBefore(filter.getRegisteredFrom()))
+                    && (filter.getRegisteredTo() == null || !row.registered.isAfter(filter.getRegisteredTo()));
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(Set<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private record Row(long id, Gender gender, BloodGroup bloodGroup, boolean active, LocalDate birth,
+            LocalDate registered) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.haripriya.haripriya_backend.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Build time and query latency of the patient search index at 100k and 1M synthetic
+ * patients. Skipped by default; run with: mvn test -Dtest=TrigramIndexBenchmarkTest -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class TrigramIndexBenchmarkTest {
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Diya", "Ishaan", "Kavya", "Rohan", "Ananya",
+            "Vihaan", "Saanvi", "Arjun", "Meera", "Karthik", "Lakshmi", "Haripriya", "Suresh", "Priya"};
+    private static final String[] LAST_NAMES = {"Sharma", "Reddy", "Iyer", "Nair", "Patel", "Gupta",
+            "Menon", "Rao", "Pillai", "Kumar", "Singh", "Das", "Joshi", "Naidu", "Varma"};
+    private static final String[] QUERIES = {"sharma", "priya", "kavya nair", "98765", "pat-2026",
+            "0042", "reddy", "xyz", "arjun k", "lakshmi pil"};
+
+    @Test
+    void hundredThousandPatients() {
+        run(100_000);
+    }
+
+    @Test
+    void oneMillionPatients() {
+        run(1_000_000);
+    }
+
+    private void run(int patients) {
+        Random random = new Random(42);
+        TrigramIndex index = new TrigramIndex();
+
+        long buildStart = System.nanoTime();
+        for (int id = 1; id <= patients; id++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String phone = String.valueOf(9_000_000_000L + random.nextInt(1_000_000_000));
+            String code = String.format("PAT-2026%02d%02d-%04d", 1 + id % 12, 1 + id % 28, id % 10_000);
+            index.put(id, name, phone, code, id % 10 != 0);
+        }
+        index.trim();
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        for (int i = 0; i < 200; i++) {
+            index.search(QUERIES[i % QUERIES.length], Boolean.TRUE);
+        }
+
+        int rounds = 1_000;
+        long[] latencies = new long[rounds];
+        long totalMatches = 0;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            long[] matches = index.search(QUERIES[i % QUERIES.length], i % 2 == 0 ? null : Boolean.TRUE);
+            latencies[i] = System.nanoTime() - start;
+            totalMatches += matches.length;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("patients=%d build=%d ms postings=%d KB p50=%.2f ms p99=%.2f ms avgMatches=%d%n",
+                patients, buildMillis, index.postingBytes() / 1024,
+                latencies[rounds / 2] / 1e6, latencies[rounds * 99 / 100] / 1e6, totalMatches / rounds);
+        assertTrue(index.size() == patients);
+    }
+}
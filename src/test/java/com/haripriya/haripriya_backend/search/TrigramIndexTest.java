@@ -0,0 +1,156 @@
+package com.haripriya.haripriya_backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Compares {@link TrigramIndex#search} with a brute-force substring check over the same
+ * patients, through updates, removals and the renumbering that tombstones trigger.
+ */
+class TrigramIndexTest {
+
+    private static final String[] NAMES = {"Aarav Sharma", "Diya Reddy", "Ishaan Iyer", "Kavya Nair",
+            "Rohan Patel", "Ananya Gupta", "Meera Menon", "Haripriya Rao", "Suresh Pillai", "O'Brien-Kumar",
+            "Zo\u00eb Das", "50% Joshi", "Under_Score", "Back\\Slash Naidu"};
+    private static final String[] TERMS = {"sharma", "ARAV", "a r", "riya", "nair", "9000", "0042", "pat-2026",
+            "-00", "zo\u00cb", "o'b", "xyz", "50%", "% j", "r_s", "_sc", "k\\s", "\\sl", "%%%", "___", "aaa", "ya "};
+
+    private final Random random = new Random(11);
+    private final TrigramIndex index = new TrigramIndex();
+    private final Map<Long, Patient> patients = new TreeMap<>();
+
+    @Test
+    void matchesSubstringScanThroughUpdatesRemovalsAndCompaction() {
+        for (long id = 1; id <= 20_000; id++) {
+            put(id);
+        }
+        compareAll();
+
+        // Replacing and removing patients leaves tombstones behind
+        for (int i = 0; i < 4_000; i++) {
+            put(1 + random.nextInt(20_000));
+        }
+        for (int i = 0; i < 1_000; i++) {
+            long id = 1 + random.nextInt(20_000);
+            index.remove(id);
+            patients.remove(id);
+        }
+        compareAll();
+
+        // Over 10,000 tombstones and a quarter of all ordinals: the index renumbers itself
+        for (int i = 0; i < 12_000; i++) {
+            put(1 + random.nextInt(25_000));
+        }
+        compareAll();
+        assertEquals(patients.size(), index.size());
+    }
+
+    @Test
+    void termsShorterThanATrigramAreLeftToTheCaller() {
+        put(1);
+        assertNull(index.search("ab", null));
+        assertNull(index.search("", null));
+        assertNull(index.search(null, null));
+    }
+
+    @Test
+    void likeWildcardsAndBackslashAreMatchedLiterally() {
+        index.put(1, "50% Joshi", "9000000001", "PAT-20261018-0001", true);
+        index.put(2, "5000 Joshi", "9000000002", "PAT-20261018-0002", true);
+        index.put(3, "Under_Score", "9000000003", "PAT-20261018-0003", true);
+        index.put(4, "UnderXScore", "9000000004", "PAT-20261018-0004", true);
+        index.put(5, "Back\\Slash", "9000000005", "PAT-20261018-0005", true);
+
+        assertArrayEquals(new long[] {1}, index.search("50% j", null));
+        assertArrayEquals(new long[] {3}, index.search("r_s", null));
+        assertArrayEquals(new long[] {5}, index.search("k\\s", null));
+        assertArrayEquals(new long[0], index.search("%%%", null));
+    }
+
+    @Test
+    void matchesDoNotSpanTwoFields() {
+        index.put(1, "Kavya Nair", "9000000001", "PAT-20261018-0001", true);
+
+        // "nair" ends the name and "900" starts the phone number
+        assertArrayEquals(new long[0], index.search("ir9", null));
+        assertArrayEquals(new long[] {1}, index.search("nair", null));
+    }
+
+    @Test
+    void postingListRoundTripsDeltasAroundVarintBoundaries() {
+        int[] deltas = {1, 126, 127, 128, 129, 16_383, 16_384, 16_385, 2_097_151, 2_097_152, 268_435_455,
+                268_435_456, 1};
+        PostingList list = new PostingList();
+        List<Integer> expected = new ArrayList<>();
+        int ordinal = 0;
+        list.add(ordinal);
+        expected.add(ordinal);
+        for (int delta : deltas) {
+            ordinal += delta;
+            list.add(ordinal);
+            expected.add(ordinal);
+        }
+        list.add(Integer.MAX_VALUE);
+        expected.add(Integer.MAX_VALUE);
+        list.trim();
+
+        assertEquals(expected, Arrays.stream(list.toArray()).boxed().toList());
+        assertEquals(expected.size(), list.size());
+        assertEquals(Integer.MAX_VALUE, list.last());
+    }
+
+    private void put(long id) {
+        String name = NAMES[random.nextInt(NAMES.length)];
+        String phone = String.valueOf(9_000_000_000L + random.nextInt(1_000_000));
+        String code = String.format("PAT-2026%02d%02d-%04d", 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(10_000));
+        boolean active = random.nextInt(10) != 0;
+        index.put(id, name, phone, code, active);
+        patients.put(id, new Patient(id, name, phone, code, active));
+    }
+
+    private void compareAll() {
+        for (String term : TERMS) {
+            for (Boolean isActive : new Boolean[] {null, true, false}) {
+                assertArrayEquals(bruteForce(term, isActive), index.search(term, isActive),
+                        () -> term + " isActive=" + isActive);
+            }
+        }
+        // Terms cut from stored values, so rare trigrams with long ordinal gaps are searched too
+        for (int i = 0; i < 200; i++) {
+            Patient patient = patients.values().stream()
+                    .skip(random.nextInt(patients.size()))
+                    .findFirst()
+                    .orElseThrow();
+            String value = List.of(patient.fullName, patient.phoneNumber, patient.patientCode).get(random.nextInt(3));
+            int start = random.nextInt(value.length() - 2);
+            String term = value.substring(start, start + 3 + random.nextInt(value.length() - start - 2));
+            assertArrayEquals(bruteForce(term, null), index.search(term, null), () -> term);
+        }
+    }
+
+    private long[] bruteForce(String term, Boolean isActive) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        return patients.values().stream()
+                .filter(patient -> isActive == null || patient.active == isActive)
+                .filter(patient -> patient.fullName.toLowerCase(Locale.ROOT).contains(needle)
+                        || patient.phoneNumber.toLowerCase(Locale.ROOT).contains(needle)
+                        || patient.patientCode.toLowerCase(Locale.ROOT).contains(needle))
+                .mapToLong(patient -> patient.id)
+                .toArray();
+    }
+
+    private record Patient(long id, String fullName, String phoneNumber, String patientCode, boolean active) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.haripriya.haripriya_backend.security;
+
+import com.haripriya.haripriya_backend.dto.LoginRequest;
+import com.haripriya.haripriya_backend.dto.RegisterRequest;
+import com.haripriya.haripriya_backend.enums.Role;
+import com.haripriya.haripriya_backend.service.AuthService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Per-request cost of resolving the principal in {@link JwtAuthenticationFilter}, with
+ * the token cache hit (no signature check, no user lookup) and with the cache cleared
+ * before every request (verify plus a users row read on the auth pool), against
+ * PostgreSQL loaded with create-schema.sql. Needs Docker; skipped by default, run with:
+ * mvn test -Dtest=JwtAuthenticationFilterBenchmarkTest -Dbenchmarks=true
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest
+class JwtAuthenticationFilterBenchmarkTest {
+
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("create-schema.sql"),
+                    "/docker-entrypoint-initdb.d/create-schema.sql");
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private TokenPrincipalCache tokenPrincipalCache;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Test
+    void cachedAndUncachedPrincipalResolution() throws Exception {
+        authService.register(new RegisterRequest("Benchmark Doctor", "filter.benchmark@example.com", "9500000001",
+                "benchmark-password", Role.DOCTOR));
+        String token = authService.login(new LoginRequest("filter.benchmark@example.com", "benchmark-password"))
+                .getToken();
+        // login leaves its own authentication behind on this thread
+        SecurityContextHolder.clearContext();
+
+        long[] uncached = measure(token, 2_000, true);
+        long[] cached = measure(token, 20_000, false);
+
+        System.out.printf("uncached p50=%.3f ms p99=%.3f ms, cached p50=%.3f ms p99=%.3f ms, p50 speedup=%.0fx%n",
+                uncached[uncached.length / 2] / 1e6, uncached[uncached.length * 99 / 100] / 1e6,
+                cached[cached.length / 2] / 1e6, cached[cached.length * 99 / 100] / 1e6,
+                (double) uncached[uncached.length / 2] / Math.max(1, cached[cached.length / 2]));
+    }
+
+    // Sorted per-request latencies in nanoseconds, after a warm-up of a tenth as many requests
+    private long[] measure(String token, int rounds, boolean clearCache) throws Exception {
+        for (int i = 0; i < rounds / 10; i++) {
+            authenticate(token, clearCache);
+        }
+        long[] latencies = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            authenticate(token, clearCache);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private void authenticate(String token, boolean clearCache) throws Exception {
+        if (clearCache) {
+            tokenPrincipalCache.invalidateAll();
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/patients");
+        request.setServletPath("/api/patients");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            assertNotNull(authentication, "token was not accepted");
+            assertEquals("filter.benchmark@example.com", ((UserPrincipal) authentication.getPrincipal()).getEmail());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
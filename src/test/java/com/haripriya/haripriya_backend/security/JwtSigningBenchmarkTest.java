@@ -0,0 +1,75 @@
+package com.haripriya.haripriya_backend.security;
+
+import com.haripriya.haripriya_backend.enums.Role;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Time to sign and to verify one token with HS512 (shared secret, jjwt) and with ES256
+ * (P-256 key, Nimbus) through {@link JwtTokenProvider}. Verification is what every
+ * request without a token cache hit pays. Skipped by default; run with:
+ * mvn test -Dtest=JwtSigningBenchmarkTest -Dbenchmarks=true
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class JwtSigningBenchmarkTest {
+
+    private static final String SECRET = "haripriyaClinicManagementSystemSecretKeyForJWTTokenGeneration2026";
+
+    @Test
+    void hs512AndEs256() throws Exception {
+        String jwk = new ECKeyGenerator(Curve.P_256).keyID("benchmark").generate().toJSONString();
+        run("HS512", provider("HS512", ""));
+        run("ES256", provider("ES256", jwk));
+    }
+
+    private void run(String algorithm, JwtTokenProvider provider) {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+                new UserPrincipal(42L, "Benchmark Doctor", "doctor@example.com", null, Role.DOCTOR, true, 3),
+                null);
+
+        int rounds = 20_000;
+        String[] tokens = new String[rounds];
+        for (int i = 0; i < rounds / 10; i++) {
+            provider.verifyToken(provider.generateToken(authentication));
+        }
+
+        long[] signing = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            tokens[i] = provider.generateToken(authentication);
+            signing[i] = System.nanoTime() - start;
+        }
+        long[] verifying = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            VerifiedToken token = provider.verifyToken(tokens[i]);
+            verifying[i] = System.nanoTime() - start;
+            assertEquals(42L, token.getUserId());
+        }
+        Arrays.sort(signing);
+        Arrays.sort(verifying);
+
+        System.out.printf("%s sign p50=%.1f us p99=%.1f us, verify p50=%.1f us p99=%.1f us, token=%d chars%n",
+                algorithm, signing[rounds / 2] / 1e3, signing[rounds * 99 / 100] / 1e3,
+                verifying[rounds / 2] / 1e3, verifying[rounds * 99 / 100] / 1e3, tokens[0].length());
+    }
+
+    private static JwtTokenProvider provider(String algorithm, String jwk) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "signingAlgorithm", algorithm);
+        ReflectionTestUtils.setField(provider, "ecJwk", jwk);
+        provider.init();
+        return provider;
+    }
+}
@@ -0,0 +1,118 @@
+package com.haripriya.haripriya_backend.service;
+
+import com.haripriya.haripriya_backend.dto.LoginRequest;
+import com.haripriya.haripriya_backend.dto.RegisterRequest;
+import com.haripriya.haripriya_backend.enums.Role;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Cost of one login (user lookup, BCrypt verify on the hashing pool, token signing)
+ * next to the cost of a single BCrypt verify with the same encoder, against PostgreSQL
+ * loaded with create-schema.sql. A login should cost about one hash; the ratio printed
+ * was about two while login authenticated through the AuthenticationManager and then
+ * looked the user up and hashed again. Needs Docker; skipped by default, run with:
+ * mvn test -Dtest=AuthServiceLoginBenchmarkTest -Dbenchmarks=true
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest
+class AuthServiceLoginBenchmarkTest {
+
+    private static final String EMAIL = "login.benchmark@example.com";
+    private static final String PASSWORD = "benchmark-password";
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("create-schema.sql"),
+                    "/docker-entrypoint-initdb.d/create-schema.sql");
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Test
+    void loginCostsOneHash() throws Exception {
+        authService.register(new RegisterRequest("Benchmark Receptionist", EMAIL, "9500000002", PASSWORD,
+                Role.RECEPTIONIST));
+        String hash = passwordEncoder.encode(PASSWORD);
+
+        int rounds = 100;
+        long[] hashes = new long[rounds];
+        long[] logins = new long[rounds];
+        for (int i = 0; i < 10; i++) {
+            passwordEncoder.matches(PASSWORD, hash);
+            login();
+        }
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            passwordEncoder.matches(PASSWORD, hash);
+            hashes[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            login();
+            logins[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(hashes);
+        Arrays.sort(logins);
+
+        // Concurrent logins are bounded by the hashing pool, one thread per CPU by default
+        int threads = 2 * Runtime.getRuntime().availableProcessors();
+        int concurrentLogins = 50 * threads;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < concurrentLogins; i++) {
+                results.add(executor.submit(this::login));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("bcrypt p50=%.1f ms, login p50=%.1f ms p99=%.1f ms (%.2f hashes per login), "
+                        + "%d threads: %.0f logins/s%n",
+                hashes[rounds / 2] / 1e6, logins[rounds / 2] / 1e6, logins[rounds * 99 / 100] / 1e6,
+                (double) logins[rounds / 2] / hashes[rounds / 2], threads, concurrentLogins / seconds);
+    }
+
+    private void login() {
+        try {
+            assertNotNull(authService.login(new LoginRequest(EMAIL, PASSWORD)).getToken());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
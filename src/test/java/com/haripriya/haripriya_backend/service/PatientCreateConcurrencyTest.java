@@ -0,0 +1,140 @@
+package com.haripriya.haripriya_backend.service;
+
+import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
+import com.haripriya.haripriya_backend.dto.PatientResponseDTO;
+import com.haripriya.haripriya_backend.enums.Gender;
+import com.haripriya.haripriya_backend.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Parallel registrations against PostgreSQL: duplicates must be rejected by the unique
+ * indexes with the usual messages, and block-allocated patient codes must never repeat.
+ * Needs Docker, skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "datasource.clinical.maximum-pool-size=" + PatientCreateConcurrencyTest.THREADS,
+        // Small blocks so the parallel creates cross many block boundaries
+        "patients.code.block-size=3"
+})
+class PatientCreateConcurrencyTest {
+
+    static final int THREADS = 16;
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("create-schema.sql"),
+                    "/docker-entrypoint-initdb.d/create-schema.sql");
+
+    @Autowired
+    private PatientService patientService;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Test
+    void onlyOneOfParallelCreatesWithTheSamePhoneNumberSucceeds() throws Exception {
+        List<Future<PatientResponseDTO>> results = createInParallel(
+                i -> request("Same Phone " + i, "9100000001", "same.phone." + i + "@example.com"));
+
+        assertSingleWinner(results, "Phone number already exists");
+    }
+
+    @Test
+    void onlyOneOfParallelCreatesWithTheSameEmailSucceeds() throws Exception {
+        List<Future<PatientResponseDTO>> results = createInParallel(
+                i -> request("Same Email " + i, String.valueOf(9200000000L + i), "same.email@example.com"));
+
+        assertSingleWinner(results, "Email already exists");
+    }
+
+    @Test
+    void parallelCreatesOfDistinctPatientsAllSucceedWithUniqueCodes() throws Exception {
+        List<Future<PatientResponseDTO>> results = createInParallel(
+                i -> request("Distinct " + i, String.valueOf(9300000000L + i), null));
+
+        Set<String> codes = new HashSet<>();
+        for (Future<PatientResponseDTO> result : results) {
+            codes.add(result.get().getPatientCode());
+        }
+        assertEquals(THREADS, codes.size(), "Patient codes repeated: " + codes);
+    }
+
+    private static void assertSingleWinner(List<Future<PatientResponseDTO>> results, String expectedMessage)
+            throws InterruptedException {
+        int created = 0;
+        for (Future<PatientResponseDTO> result : results) {
+            try {
+                result.get();
+                created++;
+            } catch (ExecutionException ex) {
+                ValidationException rejection = assertInstanceOf(ValidationException.class, ex.getCause());
+                assertEquals(expectedMessage, rejection.getMessage());
+            }
+        }
+        assertEquals(1, created);
+    }
+
+    // Starts every create at once, so the INSERTs race each other rather than running in turn
+    private List<Future<PatientResponseDTO>> createInParallel(IntFunction<PatientRequestDTO> requests)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<PatientResponseDTO>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                PatientRequestDTO request = requests.apply(i);
+                Callable<PatientResponseDTO> create = () -> {
+                    start.await();
+                    return patientService.createPatient(request);
+                };
+                results.add(executor.submit(create));
+            }
+            start.countDown();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static PatientRequestDTO request(String fullName, String phoneNumber, String email) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setFullName(fullName);
+        request.setGender(Gender.FEMALE);
+        request.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        request.setPhoneNumber(phoneNumber);
+        request.setEmail(email);
+        return request;
+    }
+}
@@ -0,0 +1,107 @@
+package com.haripriya.haripriya_backend.service;
+
+import com.haripriya.haripriya_backend.dto.PatientImportJobDTO;
+import com.haripriya.haripriya_backend.enums.ImportStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows per second of the bulk import end to end: CSV parsing, validation, the email
+ * pre-check, code and id allocation and the JDBC batches, against PostgreSQL loaded with
+ * create-schema.sql. The target is 10,000 rows/s. Needs Docker; skipped by default, run
+ * with: mvn test -Dtest=PatientImportBenchmarkTest -Dbenchmarks=true
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest
+class PatientImportBenchmarkTest {
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Diya", "Ishaan", "Kavya", "Rohan", "Ananya",
+            "Vihaan", "Saanvi", "Arjun", "Meera", "Karthik", "Lakshmi", "Haripriya", "Suresh", "Priya"};
+    private static final String[] LAST_NAMES = {"Sharma", "Reddy", "Iyer", "Nair", "Patel", "Gupta",
+            "Menon", "Rao", "Pillai", "Kumar", "Singh", "Das", "Joshi", "Naidu", "Varma"};
+    private static final String[] BLOOD_GROUPS = {"A_POSITIVE", "B_POSITIVE", "O_POSITIVE", "AB_POSITIVE",
+            "O_NEGATIVE", ""};
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("create-schema.sql"),
+                    "/docker-entrypoint-initdb.d/create-schema.sql");
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Test
+    void twoHundredThousandCsvRows() throws Exception {
+        run(200_000);
+    }
+
+    private void run(int rows) throws Exception {
+        Path csv = writeCsv(rows);
+        try {
+            long start = System.nanoTime();
+            PatientImportJobDTO job;
+            try (InputStream body = Files.newInputStream(csv)) {
+                job = patientImportService.startImport(body, "text/csv");
+            }
+            while (job.getStatus() == ImportStatus.QUEUED || job.getStatus() == ImportStatus.RUNNING) {
+                Thread.sleep(50);
+                job = patientImportService.getImportJob(job.getJobId());
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("rows=%d upload=%d KB total=%.1f s rows/s=%.0f (job %.0f, target 10000) rejected=%d%n",
+                    rows, Files.size(csv) / 1024, seconds, rows / seconds, job.getRowsPerSecond(),
+                    job.getRejected());
+            assertEquals(ImportStatus.COMPLETED, job.getStatus(), job.getFailureMessage());
+            assertEquals(rows, job.getImported());
+        } finally {
+            Files.deleteIfExists(csv);
+        }
+    }
+
+    // Unique phone numbers and emails, so every row is inserted
+    private static Path writeCsv(int rows) throws IOException {
+        Path csv = Files.createTempFile("patient-import-benchmark", ".csv");
+        LocalDate firstBirth = LocalDate.of(1940, 1, 1);
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            writer.write("fullName,gender,dateOfBirth,phoneNumber,email,address,bloodGroup,allergies\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[i / 15 % LAST_NAMES.length]);
+                writer.write(i % 2 == 0 ? ",FEMALE," : ",MALE,");
+                writer.write(firstBirth.plusDays(i * 7919L % 30_000).toString());
+                writer.write("," + (9_400_000_000L + i));
+                writer.write(i % 5 < 3 ? ",import" + i + "@example.com" : ",");
+                writer.write(",\"" + i + " Gandhi Road, Hyderabad\"");
+                writer.write("," + BLOOD_GROUPS[i % BLOOD_GROUPS.length]);
+                writer.write(i % 4 == 0 ? ",Penicillin\n" : ",\n");
+            }
+        }
+        return csv;
+    }
+}
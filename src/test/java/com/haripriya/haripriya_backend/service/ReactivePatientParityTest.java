@@ -0,0 +1,177 @@
+package com.haripriya.haripriya_backend.service;
+
+import com.haripriya.haripriya_backend.dto.PatientRequestDTO;
+import com.haripriya.haripriya_backend.dto.PatientResponseDTO;
+import com.haripriya.haripriya_backend.dto.PatientSummaryDTO;
+import com.haripriya.haripriya_backend.enums.BloodGroup;
+import com.haripriya.haripriya_backend.enums.CountMode;
+import com.haripriya.haripriya_backend.enums.Gender;
+import com.haripriya.haripriya_backend.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The reactive read path must return exactly what the JPA reads return for the same
+ * patients. Only compiled with -Preactive-reads; needs Docker, skipped without it.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "patients.reactive-reads.enabled=true",
+        // Text terms go to the LIKE query on both paths instead of the in-memory index
+        "patients.search-index.enabled=false"
+})
+class ReactivePatientParityTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("create-schema.sql"),
+                    "/docker-entrypoint-initdb.d/create-schema.sql");
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private ReactivePatientService reactivePatientService;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + POSTGRES.getHost() + ":"
+                + POSTGRES.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + POSTGRES.getDatabaseName());
+        registry.add("spring.r2dbc.username", POSTGRES::getUsername);
+        registry.add("spring.r2dbc.password", POSTGRES::getPassword);
+    }
+
+    @Test
+    void getByIdMatchesJpaWithEveryFieldSet() {
+        PatientResponseDTO created = patientService.createPatient(fullRequest("Parity Full", "9400000001"));
+
+        assertEquals(patientService.getPatientById(created.getId()),
+                reactivePatientService.getPatientById(created.getId()).block(TIMEOUT));
+    }
+
+    @Test
+    void getByIdMatchesJpaWithOptionalFieldsMissing() {
+        PatientResponseDTO created = patientService.createPatient(request("Parity Minimal", "9400000002"));
+
+        assertEquals(patientService.getPatientById(created.getId()),
+                reactivePatientService.getPatientById(created.getId()).block(TIMEOUT));
+    }
+
+    @Test
+    void getByCodeMatchesJpa() {
+        String code = patientService.createPatient(fullRequest("Parity Code", "9400000003")).getPatientCode();
+
+        assertEquals(patientService.getPatientByCode(code),
+                reactivePatientService.getPatientByCode(code).block(TIMEOUT));
+    }
+
+    @Test
+    void searchMatchesJpaWithAndWithoutStatusFilter() {
+        for (int i = 0; i < 3; i++) {
+            patientService.createPatient(request("Parity Search " + i, String.valueOf(9400000010L + i)));
+        }
+        Pageable page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+
+        List<PatientSummaryDTO> all = patientService.searchPatients("Parity Search", page, CountMode.NONE)
+                .getContent();
+        assertEquals(3, all.size());
+        assertEquals(all,
+                reactivePatientService.searchPatients("Parity Search", null, 0, 10).collectList().block(TIMEOUT));
+
+        List<PatientSummaryDTO> active = patientService.searchPatients("Parity Search", true, page, CountMode.NONE)
+                .getContent();
+        assertEquals(active,
+                reactivePatientService.searchPatients("Parity Search", true, 0, 10).collectList().block(TIMEOUT));
+    }
+
+    @Test
+    void codeSearchMatchesJpa() {
+        String code = patientService.createPatient(request("Parity Code Search", "9400000020")).getPatientCode();
+
+        assertSearchMatchesJpa(code);
+        assertSearchMatchesJpa(code.toLowerCase(Locale.ROOT));
+    }
+
+    @Test
+    void emailSearchMatchesJpa() {
+        patientService.createPatient(fullRequest("Parity Email Search", "9400000021"));
+
+        assertSearchMatchesJpa("9400000021@EXAMPLE.com");
+        assertSearchMatchesJpa(" 9400000021@example.com ");
+    }
+
+    @Test
+    void phoneSearchMatchesJpa() {
+        patientService.createPatient(request("Parity Phone Search", "9400000022"));
+        patientService.createPatient(request("Parity Phone Prefixed", "919400000022"));
+
+        // Formatted terms; the second patient matches on the suffix of its number
+        assertSearchMatchesJpa("(940) 000-0022");
+        assertSearchMatchesJpa("940 000 0022");
+    }
+
+    @Test
+    void unknownIdIsNotFoundOnBothPaths() {
+        assertThrows(ResourceNotFoundException.class, () -> patientService.getPatientById(-1L));
+        assertThrows(ResourceNotFoundException.class,
+                () -> reactivePatientService.getPatientById(-1L).block(TIMEOUT));
+    }
+
+    private void assertSearchMatchesJpa(String term) {
+        Pageable page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "id"));
+        for (Boolean isActive : new Boolean[] {null, true}) {
+            List<PatientSummaryDTO> expected = isActive == null
+                    ? patientService.searchPatients(term, page, CountMode.NONE).getContent()
+                    : patientService.searchPatients(term, isActive, page, CountMode.NONE).getContent();
+            assertFalse(expected.isEmpty(), () -> term + " found nothing");
+            assertEquals(expected,
+                    reactivePatientService.searchPatients(term, isActive, 0, 10).collectList().block(TIMEOUT),
+                    () -> term + " isActive=" + isActive);
+        }
+    }
+
+    private static PatientRequestDTO fullRequest(String fullName, String phoneNumber) {
+        PatientRequestDTO request = request(fullName, phoneNumber);
+        request.setEmail(phoneNumber + "@example.com");
+        request.setAddress("12 Temple Street, Chennai");
+        request.setBloodGroup(BloodGroup.AB_NEGATIVE);
+        request.setChronicDiseases("Hypertension");
+        request.setAllergies("Penicillin");
+        request.setEmergencyContactName("Contact of " + fullName);
+        request.setEmergencyContactPhone("9876543210");
+        return request;
+    }
+
+    private static PatientRequestDTO request(String fullName, String phoneNumber) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setFullName(fullName);
+        request.setGender(Gender.MALE);
+        request.setDateOfBirth(LocalDate.of(1985, 6, 15));
+        request.setPhoneNumber(phoneNumber);
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.haripriya.haripriya_backend.service.impl;
+
+import com.haripriya.haripriya_backend.entity.PatientCodeCounter;
+import com.haripriya.haripriya_backend.repository.PatientCodeCounterRepository;
+import com.haripriya.haripriya_backend.search.SearchTermClassifier;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * A code searched on a day whose numbers widened past 9999 may be the start of longer
+ * codes, and must then stay on the substring search instead of an exact lookup.
+ */
+class PatientCodeAllocatorTest {
+
+    private static final LocalDate BUSY_DAY = LocalDate.of(2026, 10, 18);
+    private static final LocalDate QUIET_DAY = LocalDate.of(2026, 10, 19);
+
+    private final PatientCodeCounterRepository counterRepository = mock(PatientCodeCounterRepository.class);
+    private final PatientCodeAllocator allocator = new PatientCodeAllocator(counterRepository, 50);
+
+    PatientCodeAllocatorTest() {
+        when(counterRepository.findById(BUSY_DAY)).thenReturn(Optional.of(new PatientCodeCounter(BUSY_DAY, 12345L)));
+        when(counterRepository.findById(QUIET_DAY)).thenReturn(Optional.of(new PatientCodeCounter(QUIET_DAY, 150L)));
+    }
+
+    @Test
+    void widenedCodesAreClassifiedAsPatientCodes() {
+        assertEquals(SearchTermClassifier.Kind.PATIENT_CODE, SearchTermClassifier.classify("PAT-20261018-1234"));
+        assertEquals(SearchTermClassifier.Kind.PATIENT_CODE, SearchTermClassifier.classify("pat-20261018-12345"));
+    }
+
+    @Test
+    void fourDigitCodeIsExtendedByWidenedCodesOfTheSameDay() {
+        // PAT-20261018-12340 to -12345 were issued
+        assertTrue(allocator.canBeExtended("PAT-20261018-1234"));
+        assertTrue(allocator.canBeExtended("PAT-20261018-1000"));
+    }
+
+    @Test
+    void codeIsExactWhenNoLongerNumberWasIssued() {
+        assertFalse(allocator.canBeExtended("PAT-20261018-1235"));
+        assertFalse(allocator.canBeExtended("PAT-20261018-9999"));
+        assertFalse(allocator.canBeExtended("PAT-20261018-12345"));
+        assertFalse(allocator.canBeExtended("PAT-20261019-0042"));
+        assertFalse(allocator.canBeExtended("PAT-20261019-1234"));
+    }
+
+    @Test
+    void zeroPaddedNumbersAreNeverExtended() {
+        assertFalse(allocator.canBeExtended("PAT-20261018-0123"));
+    }
+
+    @Test
+    void daysWithoutCounterOnlyHaveFourDigitCodes() {
+        assertFalse(allocator.canBeExtended("PAT-20250101-1234"));
+        assertFalse(allocator.canBeExtended("PAT-20261399-1234"));
+    }
+}